@@ -0,0 +1,90 @@
+package dev.artiz.financeassistantapi.benchmarks;
+
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Turning a category's history into the series the strategies consume.
+ * inMemoryGrouping is the original entity-based grouping kept as a
+ * baseline; seriesFromMonthlyTotals is what PredictionService does with
+ * the rows returned by the database aggregate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class AggregationBenchmark {
+
+    private static final int MONTHS = 120;
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    private int rows;
+
+    private List<Transaction> transactions;
+    private List<MonthlyTotal> monthlyTotals;
+
+    @Setup
+    public void setUp() {
+        transactions = SyntheticData.transactions(rows, MONTHS);
+        monthlyTotals = transactions
+            .stream()
+            .collect(
+                Collectors.groupingBy(
+                    t -> YearMonth.from(t.getCreatedAt()),
+                    TreeMap::new,
+                    Collectors.toList()
+                )
+            )
+            .entrySet()
+            .stream()
+            .map(e ->
+                new MonthlyTotal(
+                    TransactionCategory.FOOD,
+                    e.getKey().getYear(),
+                    e.getKey().getMonthValue(),
+                    e
+                        .getValue()
+                        .stream()
+                        .map(Transaction::getAmount)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add),
+                    (long) e.getValue().size()
+                )
+            )
+            .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        transactions = null;
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> inMemoryGrouping() {
+        return transactions
+            .stream()
+            .collect(
+                Collectors.groupingBy(
+                    t -> YearMonth.from(t.getCreatedAt()),
+                    TreeMap::new,
+                    Collectors.summingDouble(t -> t.getAmount().doubleValue())
+                )
+            );
+    }
+
+    @Benchmark
+    public MonthlySeries seriesFromMonthlyTotals() {
+        return MonthlySeries.from(monthlyTotals);
+    }
+}
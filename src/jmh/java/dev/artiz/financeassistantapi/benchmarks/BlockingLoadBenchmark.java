@@ -0,0 +1,117 @@
+package dev.artiz.financeassistantapi.benchmarks;
+
+import dev.artiz.financeassistantapi.config.SchedulerConfig;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Throughput of connection-free blocking work (cache lookups) while
+ * {@code concurrency} repository calls are in flight, each holding one of
+ * POOL_SIZE connections. Repository throughput itself is bound by the pool
+ * in every mode; what changes is whether waiting queries starve the rest.
+ * <p>
+ * SHARED_BOUNDED_ELASTIC runs both on Schedulers.boundedElastic(), as the
+ * services did before, so threads parked on a connection crowd out the
+ * cache lookups. JPA_PLATFORM and JPA_VIRTUAL move repository calls to the
+ * jpaScheduler from {@link SchedulerConfig}, capped at the pool size, on
+ * platform and virtual threads respectively.
+ * One operation is a wave of LOOKUPS cache lookups.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingLoadBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final Duration QUERY_TIME = Duration.ofMillis(5);
+    private static final Duration CACHE_TIME = Duration.ofMillis(1);
+    private static final int LOOKUPS = 100;
+
+    @Param({ "SHARED_BOUNDED_ELASTIC", "JPA_PLATFORM", "JPA_VIRTUAL" })
+    private String mode;
+
+    @Param({ "200", "1000", "5000" })
+    private int concurrency;
+
+    // Stands in for the Hikari pool: a query waits for a free connection
+    private final Semaphore connections = new Semaphore(POOL_SIZE, true);
+
+    private Scheduler jpaScheduler;
+    private Disposable queryLoad;
+
+    @Setup
+    public void setUp() {
+        jpaScheduler = switch (mode) {
+            case "SHARED_BOUNDED_ELASTIC" -> Schedulers.boundedElastic();
+            case "JPA_PLATFORM" -> new SchedulerConfig()
+                .jpaScheduler(POOL_SIZE, 100_000, false);
+            case "JPA_VIRTUAL" -> new SchedulerConfig()
+                .jpaScheduler(POOL_SIZE, 100_000, true);
+            default -> throw new IllegalArgumentException(mode);
+        };
+    }
+
+    // Keeps `concurrency` queries in flight for the whole iteration
+    @Setup(Level.Iteration)
+    public void startQueryLoad() {
+        queryLoad = Flux
+            .<Integer>generate(sink -> sink.next(0))
+            .flatMap(i -> query(), concurrency)
+            .subscribe();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopQueryLoad() {
+        queryLoad.dispose();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (jpaScheduler != Schedulers.boundedElastic()) {
+            jpaScheduler.dispose();
+        }
+    }
+
+    @Benchmark
+    public Long wave() {
+        return Flux
+            .range(0, LOOKUPS)
+            .flatMap(i -> cacheLookup(), LOOKUPS)
+            .count()
+            .block();
+    }
+
+    private Mono<Integer> query() {
+        return Mono
+            .fromCallable(() -> {
+                connections.acquire();
+                try {
+                    LockSupport.parkNanos(QUERY_TIME.toNanos());
+                    return 1;
+                } finally {
+                    connections.release();
+                }
+            })
+            .subscribeOn(jpaScheduler);
+    }
+
+    private Mono<Integer> cacheLookup() {
+        return Mono
+            .fromCallable(() -> {
+                LockSupport.parkNanos(CACHE_TIME.toNanos());
+                return 0;
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+}
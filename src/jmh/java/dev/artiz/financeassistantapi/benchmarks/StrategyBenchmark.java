@@ -0,0 +1,78 @@
+package dev.artiz.financeassistantapi.benchmarks;
+
+import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
+import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.predictions.strategies.HoltParameterOptimizer;
+import dev.artiz.financeassistantapi.predictions.strategies.HoltWintersStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.MovingAverageStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.NaiveWithDriftStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.OrdinaryLeastSquaresStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.SeasonalPersistenceStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.WeightedMovingAverageStrategy;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Cost of a single strategy evaluation for series from one year to thirty
+ * years of monthly history.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StrategyBenchmark {
+
+    @Param({ "12", "60", "120", "360" })
+    private int months;
+
+    @Param(
+        {
+            "HOLT_WINTERS",
+            "HOLT_WINTERS_FIT",
+            "MOVING_AVERAGE",
+            "NAIVE_DRIFT",
+            "OLS",
+            "SEASONAL_PERSISTENCE",
+            "WMA",
+        }
+    )
+    private String model;
+
+    private PredictionStrategy strategy;
+    private MonthlySeries series;
+
+    @Setup
+    public void setUp() {
+        series = SyntheticData.monthlySeries(months);
+        strategy = switch (model) {
+            case "HOLT_WINTERS" -> holtWinters(1_000);
+            case "HOLT_WINTERS_FIT" -> holtWinters(0);
+            case "MOVING_AVERAGE" -> new MovingAverageStrategy();
+            case "NAIVE_DRIFT" -> new NaiveWithDriftStrategy();
+            case "OLS" -> new OrdinaryLeastSquaresStrategy();
+            case "SEASONAL_PERSISTENCE" -> new SeasonalPersistenceStrategy();
+            case "WMA" -> new WeightedMovingAverageStrategy();
+            default -> throw new IllegalArgumentException(model);
+        };
+    }
+
+    @Benchmark
+    public PredictionDTO.Prediction predictNextMonth() {
+        return strategy.predictNextMonth(series, TransactionCategory.FOOD);
+    }
+
+    // HOLT_WINTERS reuses the cached fit; HOLT_WINTERS_FIT disables the
+    // cache so every call pays for the parameter search.
+    private static PredictionStrategy holtWinters(long fitCacheSize) {
+        HoltWintersStrategy strategy = new HoltWintersStrategy(
+            new HoltParameterOptimizer(fitCacheSize)
+        );
+        ReflectionTestUtils.setField(strategy, "optimize", true);
+        return strategy;
+    }
+}
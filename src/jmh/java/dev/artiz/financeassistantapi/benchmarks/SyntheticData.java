@@ -0,0 +1,71 @@
+package dev.artiz.financeassistantapi.benchmarks;
+
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generators for benchmark inputs. A fixed seed keeps runs
+ * comparable across commits.
+ */
+final class SyntheticData {
+
+    private static final long SEED = 42;
+
+    private SyntheticData() {}
+
+    /**
+     * Monthly spending with a slow trend, a yearly cycle and noise.
+     */
+    static MonthlySeries monthlySeries(int months) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        double[] values = new double[months];
+        for (int i = 0; i < months; i++) {
+            double trend = 1_000 + 4.0 * i;
+            double season = 150 * Math.sin(2 * Math.PI * i / 12.0);
+            double noise = random.nextGaussian() * 60;
+            values[i] = Math.max(0, trend + season + noise);
+        }
+        return new MonthlySeries(YearMonth.of(1995, 1), values);
+    }
+
+    /**
+     * Single-category ledger spread evenly over the given number of months.
+     * Amounts and timestamps come from small pools, so multi-million row
+     * lists stay within a few GB of heap.
+     */
+    static List<Transaction> transactions(int rows, int months) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        BigDecimal[] amounts = new BigDecimal[1_000];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = BigDecimal.valueOf(i, 1).add(BigDecimal.ONE);
+        }
+        LocalDateTime[] days = new LocalDateTime[months * 28];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = YearMonth.of(1995, 1)
+                .plusMonths(i / 28)
+                .atDay(1 + i % 28)
+                .atTime(12, 0);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            transactions.add(
+                Transaction.builder()
+                    .id((long) i)
+                    .amount(amounts[random.nextInt(amounts.length)])
+                    .category(TransactionCategory.FOOD)
+                    .createdAt(days[(int) ((long) i * days.length / rows)])
+                    .userId("user-" + (i % 100))
+                    .build()
+            );
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,176 @@
+package dev.artiz.financeassistantapi.config;
+
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.MetricRegistry;
+import com.netflix.concurrency.limits.limit.Gradient2Limit;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Caps how many prediction calls a node works on at once. The cap is learned
+ * from call latency: while calls finish about as fast as the best recent
+ * ones it grows, and once they queue up and slow down it shrinks. Calls over
+ * the cap get {@code 503} with a {@code Retry-After} header, and the token
+ * {@link RateLimitingFilter} charged for them is refunded.
+ * <p>
+ * The limit, in-flight count, observed latencies and call outcomes are
+ * published as {@code predictions.concurrency.*} meters.
+ */
+@Component
+@Order(RateLimitingFilter.ORDER + 1)
+public class AdaptiveConcurrencyFilter implements WebFilter {
+
+    private static final String BUSY_RESPONSE =
+        "{\"error\": \"Predictions are busy right now. Please retry shortly.\"}";
+
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final SimpleLimiter<Void> limiter;
+    private final String retryAfter;
+
+    public AdaptiveConcurrencyFilter(
+        RateLimiter rateLimiter,
+        // Slice tests run without the metrics auto-configuration
+        ObjectProvider<MeterRegistry> meterRegistry,
+        @Value(
+            "${concurrency-limit.predictions.initial-limit:20}"
+        ) int initialLimit,
+        @Value("${concurrency-limit.predictions.min-limit:4}") int minLimit,
+        @Value("${concurrency-limit.predictions.max-limit:200}") int maxLimit,
+        @Value(
+            "${concurrency-limit.predictions.retry-after:1s}"
+        ) Duration retryAfter
+    ) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry.getIfAvailable(
+            SimpleMeterRegistry::new
+        );
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+
+        MetricRegistry metrics = new MicrometerMetrics(this.meterRegistry);
+        this.limiter = SimpleLimiter.newBuilder()
+            .named("predictions")
+            .limit(
+                Gradient2Limit.newBuilder()
+                    .initialLimit(initialLimit)
+                    .minLimit(minLimit)
+                    .maxConcurrency(maxLimit)
+                    .metricRegistry(metrics)
+                    .build()
+            )
+            .metricRegistry(metrics)
+            .build();
+        // The limiter samples in-flight calls into a distribution of its own
+        Gauge.builder(
+            "predictions.concurrency.inflight.current",
+            limiter::getInflight
+        ).register(this.meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(
+        ServerWebExchange exchange,
+        WebFilterChain chain
+    ) {
+        String path = exchange.getRequest().getPath().pathWithinApplication()
+            .value();
+
+        if (!path.startsWith("/api/v1/predictions")) {
+            return chain.filter(exchange);
+        }
+
+        Optional<Limiter.Listener> acquired = limiter.acquire(null);
+        if (acquired.isEmpty()) {
+            return shed(exchange, path);
+        }
+
+        Limiter.Listener listener = acquired.get();
+        return chain
+            .filter(exchange)
+            .doFinally(signal -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                // Only complete calls are a latency sample; errors and
+                // cancelled calls say nothing about how loaded the node is
+                if (
+                    signal == SignalType.ON_COMPLETE &&
+                    (status == null || !status.is5xxServerError())
+                ) {
+                    listener.onSuccess();
+                } else {
+                    listener.onIgnore();
+                }
+            });
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, String path) {
+        meterRegistry
+            .counter("predictions.concurrency.shed", "path", path)
+            .increment();
+
+        Mono<Void> refund = Mono.deferContextual(context ->
+            RateLimiter.caller(context)
+                .map(caller -> rateLimiter.refund(caller.key(), 1))
+                .orElseGet(Mono::empty)
+        );
+
+        var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        DataBuffer buffer = response
+            .bufferFactory()
+            .wrap(BUSY_RESPONSE.getBytes());
+
+        return refund.then(response.writeWith(Mono.just(buffer)));
+    }
+
+    /**
+     * Publishes the limiter's own meters through Micrometer, named
+     * {@code predictions.concurrency.<id>}.
+     */
+    private record MicrometerMetrics(MeterRegistry registry)
+        implements MetricRegistry {
+        @Override
+        public SampleListener distribution(String id, String... tags) {
+            DistributionSummary summary = DistributionSummary.builder(name(id))
+                .tags(tags)
+                .register(registry);
+            return value -> summary.record(value.doubleValue());
+        }
+
+        @Override
+        public void gauge(String id, Supplier<Number> supplier, String... tags) {
+            Gauge.builder(name(id), supplier).tags(tags).register(registry);
+        }
+
+        @Override
+        public Counter counter(String id, String... tags) {
+            return registry.counter(name(id), tags)::increment;
+        }
+
+        private static String name(String id) {
+            return "predictions.concurrency." + id.replace('_', '.');
+        }
+    }
+}
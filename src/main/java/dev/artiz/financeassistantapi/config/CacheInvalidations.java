@@ -0,0 +1,133 @@
+package dev.artiz.financeassistantapi.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Tells the other nodes to drop entries from their in-process caches. A node
+ * that changes an entry clears its own copy directly and publishes the cache
+ * name and key on a Redis channel; every other node then invalidates the key
+ * in the local cache registered under that name.
+ * <p>
+ * Pub/sub delivery is best effort. Until the subscription is up, and while
+ * it is down, it is retried every {@code app.cache.invalidation.reconnect-delay};
+ * once it is back, every local cache is cleared, since messages sent in the
+ * meantime are lost. A node that misses a message otherwise keeps its copy
+ * until the local TTL expires.
+ */
+@Slf4j
+@Component
+public class CacheInvalidations implements MessageListener, DisposableBean {
+
+    public static final String CHANNEL = "cache:invalidations";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Consumer<String>> localCaches =
+        new ConcurrentHashMap<>();
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer container;
+    private final Disposable subscription;
+
+    public CacheInvalidations(
+        StringRedisTemplate redisTemplate,
+        @Value(
+            "${app.cache.invalidation.reconnect-delay:5s}"
+        ) Duration reconnectDelay
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(
+            redisTemplate.getRequiredConnectionFactory()
+        );
+        container.addMessageListener(this, new ChannelTopic(CHANNEL));
+        container.afterPropertiesSet();
+
+        this.subscription = Mono.fromRunnable(this::listen)
+            .subscribeOn(Schedulers.boundedElastic())
+            .repeatWhen(attempts -> attempts.delayElements(reconnectDelay))
+            .subscribe();
+    }
+
+    /**
+     * Registers the local cache invalidated by messages for {@code cacheName}.
+     * The invalidator receives the key, or {@code null} to clear the cache.
+     */
+    public void register(String cacheName, Consumer<String> invalidator) {
+        localCaches.put(cacheName, invalidator);
+    }
+
+    /**
+     * Asks the other nodes to drop {@code key}, or the whole cache if the
+     * key is {@code null}.
+     */
+    public void publish(String cacheName, Object key) {
+        String message = nodeId + "\n" + cacheName;
+        if (key != null) {
+            message += "\n" + key;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            log.warn(
+                "Could not publish invalidation of {} {}: {}",
+                cacheName,
+                key,
+                e.getMessage()
+            );
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // Node id, cache name and an optional key, one per line
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8)
+            .split("\n", 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+
+        Consumer<String> invalidator = localCaches.get(parts[1]);
+        if (invalidator != null) {
+            invalidator.accept(parts.length == 3 ? parts[2] : null);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        subscription.dispose();
+        container.destroy();
+    }
+
+    private void listen() {
+        if (container.isListening()) {
+            return;
+        }
+        try {
+            // A failed start leaves the container started but not listening
+            container.stop();
+            container.start();
+        } catch (Exception e) {
+            log.warn("Cache invalidations unavailable: {}", e.getMessage());
+            return;
+        }
+        localCaches.values().forEach(invalidator -> invalidator.accept(null));
+        log.info("Listening for cache invalidations on {}", CHANNEL);
+    }
+}
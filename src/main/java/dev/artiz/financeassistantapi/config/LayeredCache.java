@@ -0,0 +1,130 @@
+package dev.artiz.financeassistantapi.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import lombok.Getter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * A cache served from an in-process Caffeine tier in front of a shared Redis
+ * one. A local miss installs a pending entry and the caller that installed
+ * it reads Redis outside of Caffeine's compute, so no bin lock is held during
+ * the I/O; concurrent readers of the key wait for the same load. An
+ * invalidation arriving meanwhile removes the pending entry, so what the
+ * load returns is not kept. Writes go to Redis first, then to the local
+ * tier, and are announced through {@link CacheInvalidations} so other nodes
+ * drop their copies. Keys are strings, as they are in Redis.
+ */
+public class LayeredCache implements Cache {
+
+    @Getter
+    private final AsyncCache<Object, Object> local;
+
+    @Getter
+    private final Cache remote;
+
+    private final CacheInvalidations invalidations;
+
+    public LayeredCache(
+        AsyncCache<Object, Object> local,
+        Cache remote,
+        CacheInvalidations invalidations
+    ) {
+        this.local = local;
+        this.remote = remote;
+        this.invalidations = invalidations;
+        invalidations.register(getName(), key -> {
+            if (key == null) {
+                local.synchronous().invalidateAll();
+            } else {
+                local.synchronous().invalidate(key);
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = load(key, () -> {
+            ValueWrapper hit = remote.get(key);
+            return hit == null ? null : hit.get();
+        });
+        return value == null ? null : new SimpleValueWrapper(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper hit = get(key);
+        Object value = hit == null ? null : hit.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                "Cached value is not of required type [" +
+                type.getName() +
+                "]: " +
+                value
+            );
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) load(key, () -> remote.get(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.synchronous().put(key, value);
+        invalidations.publish(getName(), key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.synchronous().invalidate(key);
+        invalidations.publish(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.synchronous().invalidateAll();
+        invalidations.publish(getName(), null);
+    }
+
+    // A null result or a failure leaves no local entry behind
+    private Object load(Object key, Supplier<Object> fromRemote) {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> entry = local.get(key, (k, executor) ->
+            pending
+        );
+        if (entry == pending) {
+            try {
+                pending.complete(fromRemote.get());
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.artiz.financeassistantapi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Wraps every cache of a Redis {@link CacheManager} in a {@link LayeredCache},
+ * each with its own local tier, so hot keys are read from memory and the
+ * rest from Redis.
+ */
+public class LayeredCacheManager implements CacheManager {
+
+    private final CacheManager remote;
+    private final Supplier<Caffeine<Object, Object>> localSpec;
+    private final CacheInvalidations invalidations;
+    private final ConcurrentMap<String, LayeredCache> caches =
+        new ConcurrentHashMap<>();
+
+    public LayeredCacheManager(
+        CacheManager remote,
+        Supplier<Caffeine<Object, Object>> localSpec,
+        CacheInvalidations invalidations
+    ) {
+        this.remote = remote;
+        this.localSpec = localSpec;
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            Cache cache = remote.getCache(n);
+            return cache == null
+                ? null
+                : new LayeredCache(
+                    localSpec.get().buildAsync(),
+                    cache,
+                    invalidations
+                );
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+}
@@ -0,0 +1,78 @@
+package dev.artiz.financeassistantapi.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Non-blocking access to the application database for the {@code r2dbc}
+ * profile. JPA keeps owning the schema and the remaining tables, so the
+ * R2DBC auto-configuration stays excluded and only what the transaction
+ * store needs is wired here.
+ * <p>
+ * The pool is not exposed as a ConnectionFactory bean: its presence
+ * switches off the DataSource auto-configuration that JPA depends on.
+ */
+@Configuration
+@Profile("r2dbc")
+public class R2dbcConfig implements DisposableBean {
+
+    @Value("${app.r2dbc.url:r2dbc:postgresql://localhost:5432/app_db}")
+    private String url;
+
+    @Value("${app.r2dbc.username:${spring.datasource.username:app_user}}")
+    private String username;
+
+    @Value("${app.r2dbc.password:${spring.datasource.password:app_pass}}")
+    private String password;
+
+    @Value("${app.r2dbc.pool.max-size:20}")
+    private int maxPoolSize;
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+            ConnectionFactoryOptions.parse(url)
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build()
+        );
+        connectionPool = new ConnectionPool(
+            ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(maxPoolSize)
+                .build()
+        );
+        return DatabaseClient.create(connectionPool);
+    }
+
+    // Deliberately not a ReactiveTransactionManager bean: it would take the
+    // place of the JPA transaction manager that every other writer relies on.
+    @Bean
+    public TransactionalOperator r2dbcTransactionalOperator(
+        DatabaseClient databaseClient
+    ) {
+        return TransactionalOperator.create(
+            new R2dbcTransactionManager(databaseClient.getConnectionFactory())
+        );
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package dev.artiz.financeassistantapi.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Per-caller token buckets for the prediction endpoints. Buckets are shared
+ * across nodes through {@link RedisTokenBuckets}; without Redis, or while it
+ * is unreachable, each node falls back to its own buckets. Local buckets sit
+ * in a bounded cache and are dropped once idle for a full refill period,
+ * when they would be full again anyway.
+ * <p>
+ * {@link RateLimitingFilter} charges every call and binds the {@link Caller}
+ * to the request's Reactor context, so work further down can charge or
+ * refund the same bucket.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private final MeterRegistry meterRegistry;
+    private final RedisTokenBuckets redisBuckets;
+    private final long capacity;
+    private final Bandwidth limit;
+    private final BucketConfiguration configuration;
+    private final Cache<String, Bucket> localBuckets;
+
+    public RateLimiter(
+        // Slice tests run without the metrics auto-configuration
+        ObjectProvider<MeterRegistry> meterRegistry,
+        ObjectProvider<RedisTokenBuckets> redisBuckets,
+        // Precomputed predictions make most calls cheap reads, so the limit is tunable
+        @Value("${rate-limit.predictions.capacity:5}") long capacity,
+        @Value("${rate-limit.predictions.refill-period:1m}") Duration refillPeriod,
+        @Value("${rate-limit.local.max-keys:10000}") long maxKeys
+    ) {
+        this.meterRegistry = meterRegistry.getIfAvailable(
+            SimpleMeterRegistry::new
+        );
+        this.redisBuckets = redisBuckets.getIfAvailable();
+        this.capacity = capacity;
+        this.limit = Bandwidth.builder()
+            .capacity(capacity)
+            .refillIntervally(capacity, refillPeriod)
+            .build();
+        this.configuration = BucketConfiguration.builder()
+            .addLimit(limit)
+            .build();
+        this.localBuckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(refillPeriod)
+            .build();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public Mono<Boolean> tryConsume(String key, long tokens) {
+        if (redisBuckets == null) {
+            return Mono.fromSupplier(() -> localBucket(key).tryConsume(tokens));
+        }
+        return redisBuckets
+            .tryConsume(key, tokens, configuration)
+            .onErrorResume(e -> {
+                logFallback(key, e);
+                return Mono.fromSupplier(() ->
+                    localBucket(key).tryConsume(tokens)
+                );
+            });
+    }
+
+    /**
+     * Returns tokens for work that was charged but not done. The bucket never
+     * grows past its capacity.
+     */
+    public Mono<Void> refund(String key, long tokens) {
+        if (redisBuckets == null) {
+            return Mono.fromRunnable(() -> localBucket(key).addTokens(tokens));
+        }
+        return redisBuckets
+            .addTokens(key, tokens, configuration)
+            .onErrorResume(e -> {
+                logFallback(key, e);
+                return Mono.fromRunnable(() ->
+                    localBucket(key).addTokens(tokens)
+                );
+            });
+    }
+
+    public void rejected(String path) {
+        meterRegistry
+            .counter("rate.limit.rejections", "path", path)
+            .increment();
+    }
+
+    public static Context bind(Caller caller) {
+        return Context.of(Caller.class, caller);
+    }
+
+    public static Optional<Caller> caller(ContextView context) {
+        return context.getOrEmpty(Caller.class);
+    }
+
+    private Bucket localBucket(String key) {
+        return localBuckets.get(key, k ->
+            Bucket.builder().addLimit(limit).build()
+        );
+    }
+
+    private void logFallback(String key, Throwable e) {
+        log.debug("Rate limiting {} locally: {}", key, e.getMessage());
+        meterRegistry.counter("rate.limit.redis.failures").increment();
+    }
+
+    /**
+     * The bucket a request is charged to, and its path for the metrics.
+     */
+    public record Caller(String key, String path) {}
+}
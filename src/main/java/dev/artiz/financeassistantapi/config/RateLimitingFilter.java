@@ -1,39 +1,36 @@
 package dev.artiz.financeassistantapi.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
-import java.time.Duration;
-import java.util.Map;
+import java.security.Principal;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+/**
+ * Charges every prediction call one token from the caller's
+ * {@link RateLimiter} bucket, keyed by JWT subject and by remote address for
+ * anonymous requests. The caller is bound to the request's Reactor context
+ * so that expensive work can charge more tokens on top.
+ */
 @Component
+@Order(RateLimitingFilter.ORDER)
+@RequiredArgsConstructor
 public class RateLimitingFilter implements WebFilter {
 
+    /** Runs after Spring Security, which resolves the principal. */
+    public static final int ORDER = 0;
+
     private static final String LIMIT_RESPONSE =
         "{\"error\": \"Too many requests. Please slow down. Prediction is expensive!\"}";
 
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
-
-    private Bucket createNewBucket() {
-        return Bucket.builder()
-            .addLimit(
-                Bandwidth.classic(
-                    5,
-                    Refill.intervally(5, Duration.ofMinutes(1))
-                )
-            )
-            .build();
-    }
+    private final RateLimiter rateLimiter;
 
     @Override
     public Mono<Void> filter(
@@ -47,7 +44,36 @@ public class RateLimitingFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
-        String key = Optional
+        return exchange
+            .getPrincipal()
+            .map(Principal::getName)
+            .map(subject -> "predictions:user:" + subject)
+            .switchIfEmpty(
+                Mono.fromSupplier(() ->
+                    "predictions:ip:" + remoteAddress(exchange)
+                )
+            )
+            .flatMap(key ->
+                rateLimiter
+                    .tryConsume(key, 1)
+                    .flatMap(allowed -> {
+                        if (allowed) {
+                            return chain
+                                .filter(exchange)
+                                .contextWrite(
+                                    RateLimiter.bind(
+                                        new RateLimiter.Caller(key, path)
+                                    )
+                                );
+                        }
+                        rateLimiter.rejected(path);
+                        return sendErrorResponse(exchange);
+                    })
+            );
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        return Optional
             .ofNullable(exchange.getRequest().getRemoteAddress())
             .map(address ->
                 address.getAddress() != null
@@ -55,13 +81,6 @@ public class RateLimitingFilter implements WebFilter {
                     : address.getHostString()
             )
             .orElse("unknown");
-        Bucket bucket = cache.computeIfAbsent(key, k -> createNewBucket());
-
-        if (bucket.tryConsume(1)) {
-            return chain.filter(exchange);
-        }
-
-        return sendErrorResponse(exchange);
     }
 
     private Mono<Void> sendErrorResponse(ServerWebExchange exchange) {
@@ -1,14 +1,20 @@
 package dev.artiz.financeassistantapi.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -17,28 +23,72 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 @EnableCaching
 public class RedisConfig {
 
+    @Value("${app.cache.local.max-entries:2000}")
+    private long localMaxEntries;
+
+    // Bounds how long a node that missed an invalidation serves its copy
+    @Value("${app.cache.local.ttl:1m}")
+    private Duration localTtl;
+
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(
+        RedisConnectionFactory connectionFactory,
+        CacheInvalidations invalidations
+    ) {
         RedisCacheConfiguration config =
             RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(
+            connectionFactory
+        )
             .cacheDefaults(config)
             .withCacheConfiguration("predictions", config)
+            .withCacheConfiguration("transactions", config)
+            // Hit/miss counters, published as cache.gets by the actuator
+            .enableStatistics()
             .build();
-    }
+        redisCacheManager.initializeCaches();
 
-    @Bean(name = "caffeineCacheManager")
-    public CacheManager caffeineCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("buckets");
-        cacheManager.setCaffeine(
-            Caffeine.newBuilder()
-                .expireAfterWrite(1, TimeUnit.MINUTES)
-                .maximumSize(1000)
+        return new LayeredCacheManager(
+            redisCacheManager,
+            () ->
+                Caffeine.newBuilder()
+                    .maximumSize(localMaxEntries)
+                    .expireAfterWrite(localTtl)
+                    .recordStats(),
+            invalidations
         );
-        return cacheManager;
+    }
+
+    /**
+     * Publishes both tiers of a {@link LayeredCache} as cache meters, told
+     * apart by a {@code tier} tag.
+     */
+    @Bean
+    public CacheMeterBinderProvider<LayeredCache> layeredCacheMeterBinderProvider() {
+        return new CacheMeterBinderProvider<>() {
+            @Override
+            public MeterBinder getMeterBinder(
+                LayeredCache cache,
+                Iterable<Tag> tags
+            ) {
+                return registry -> {
+                    new CaffeineCacheMetrics<>(
+                        cache.getLocal().synchronous(),
+                        cache.getName(),
+                        Tags.of(tags).and("tier", "local")
+                    ).bindTo(registry);
+                    if (cache.getRemote() instanceof RedisCache redisCache) {
+                        new RedisCacheMetrics(
+                            redisCache,
+                            Tags.of(tags).and("tier", "redis")
+                        ).bindTo(registry);
+                    }
+                };
+            }
+        };
     }
 }
@@ -0,0 +1,164 @@
+package dev.artiz.financeassistantapi.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Token buckets kept in Redis, so every node draws from the same budget.
+ * <p>
+ * Each key's bucket proxy stays in a bounded local tier and only synchronises
+ * with Redis once it has consumed {@code rate-limit.redis.max-unsynced-tokens}
+ * (by default a quarter of the capacity, rounded up) or
+ * {@code rate-limit.redis.sync-interval} has passed; the checks in between
+ * are answered without a round trip. Across the cluster a key may overshoot
+ * by that many tokens per node: with the default capacity of 5, a caller
+ * spread over N nodes can take up to 5 + 2N tokens in a refill period. The
+ * connection is opened on first use, and a failed attempt is retried after
+ * {@code rate-limit.redis.reconnect-delay}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limit.redis.enabled", matchIfMissing = true)
+public class RedisTokenBuckets implements DisposableBean {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+    private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+
+    private final Cache<String, AsyncBucketProxy> buckets;
+    private final DelayParameters syncParameters;
+    private final Mono<AsyncProxyManager<String>> proxyManager;
+    private volatile StatefulConnection<String, byte[]> connection;
+
+    public RedisTokenBuckets(
+        LettuceConnectionFactory connectionFactory,
+        @Value("${rate-limit.local.max-keys:10000}") long maxKeys,
+        @Value("${rate-limit.predictions.capacity:5}") long capacity,
+        @Value("${rate-limit.predictions.refill-period:1m}") Duration refillPeriod,
+        @Value(
+            "${rate-limit.redis.max-unsynced-tokens:#{null}}"
+        ) Long maxUnsyncedTokens,
+        @Value("${rate-limit.redis.sync-interval:1s}") Duration syncInterval,
+        @Value("${rate-limit.redis.reconnect-delay:5s}") Duration reconnectDelay
+    ) {
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(refillPeriod)
+            .build();
+        this.syncParameters = new DelayParameters(
+            maxUnsyncedTokens == null
+                ? Math.ceilDiv(capacity, 4)
+                : maxUnsyncedTokens,
+            syncInterval
+        );
+        this.proxyManager = Mono
+            .fromCallable(() ->
+                connect(connectionFactory.getRequiredNativeClient())
+            )
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnError(e ->
+                log.warn("Redis rate limiting unavailable: {}", e.getMessage())
+            )
+            .cache(manager -> FOREVER, e -> reconnectDelay, () -> Duration.ZERO);
+    }
+
+    /**
+     * Takes tokens from the key's shared bucket, creating it with the given
+     * configuration on first use. Errors if Redis cannot be reached.
+     */
+    public Mono<Boolean> tryConsume(
+        String key,
+        long tokens,
+        BucketConfiguration configuration
+    ) {
+        return bucket(key, configuration).flatMap(bucket ->
+            Mono.fromFuture(() -> bucket.tryConsume(tokens))
+        );
+    }
+
+    public Mono<Void> addTokens(
+        String key,
+        long tokens,
+        BucketConfiguration configuration
+    ) {
+        return bucket(key, configuration).flatMap(bucket ->
+            Mono.fromFuture(() -> bucket.addTokens(tokens))
+        );
+    }
+
+    private Mono<AsyncBucketProxy> bucket(
+        String key,
+        BucketConfiguration configuration
+    ) {
+        return proxyManager.map(manager ->
+            buckets.get(key, k ->
+                manager
+                    .builder()
+                    .withOptimization(Optimizations.delaying(syncParameters))
+                    .build(KEY_PREFIX + k, () ->
+                        CompletableFuture.completedFuture(configuration)
+                    )
+            )
+        );
+    }
+
+    private AsyncProxyManager<String> connect(AbstractRedisClient client) {
+        RedisCodec<String, byte[]> codec = RedisCodec.of(
+            StringCodec.UTF8,
+            ByteArrayCodec.INSTANCE
+        );
+        // Idle buckets are full again after a refill; let Redis drop them then
+        ClientSideConfig config =
+            ClientSideConfig.getDefault().withExpirationAfterWriteStrategy(
+                ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(
+                    Duration.ofSeconds(10)
+                )
+            );
+
+        if (client instanceof RedisClusterClient cluster) {
+            var clusterConnection = cluster.connect(codec);
+            connection = clusterConnection;
+            return LettuceBasedProxyManager.builderFor(clusterConnection)
+                .withClientSideConfig(config)
+                .build()
+                .asAsync();
+        }
+        var standaloneConnection = ((RedisClient) client).connect(codec);
+        connection = standaloneConnection;
+        return LettuceBasedProxyManager.builderFor(standaloneConnection)
+            .withClientSideConfig(config)
+            .build()
+            .asAsync();
+    }
+
+    @Override
+    public void destroy() {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+}
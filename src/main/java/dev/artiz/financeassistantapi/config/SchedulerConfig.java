@@ -0,0 +1,61 @@
+package dev.artiz.financeassistantapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class SchedulerConfig {
+
+    // 0 means one worker per available core; strategies are CPU bound
+    @Value("${forecasting.strategies.pool-size:0}")
+    private int strategyPoolSize;
+
+    @Value("${forecasting.strategies.queue-size:1000}")
+    private int strategyQueueSize;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler predictionStrategyScheduler() {
+        int threads = strategyPoolSize > 0
+            ? strategyPoolSize
+            : Runtime.getRuntime().availableProcessors();
+
+        return Schedulers.newBoundedElastic(
+            threads,
+            strategyQueueSize,
+            "prediction-strategy"
+        );
+    }
+
+    /**
+     * Runs blocking repository calls. Each task holds a JDBC connection for
+     * its whole duration, so concurrency is capped at the Hikari pool size:
+     * work beyond it queues here instead of parking threads inside
+     * getConnection, and it no longer competes with other blocking work on
+     * the shared bounded-elastic pool. On virtual threads a waiting task
+     * costs a few hundred bytes of heap instead of a platform thread stack.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler(
+        @Value(
+            "${app.jpa.scheduler.max-threads:${spring.datasource.hikari.maximum-pool-size:10}}"
+        ) int maxThreads,
+        @Value("${app.jpa.scheduler.queue-size:100000}") int queueSize,
+        @Value("${app.jpa.scheduler.virtual-threads:true}") boolean virtualThreads
+    ) {
+        if (!virtualThreads) {
+            return Schedulers.newBoundedElastic(maxThreads, queueSize, "jpa");
+        }
+
+        Scheduler scheduler = new Schedulers.Factory() {}
+            .newThreadPerTaskBoundedElastic(
+                maxThreads,
+                queueSize,
+                Thread.ofVirtual().name("jpa-", 0).factory()
+            );
+        scheduler.init();
+        return scheduler;
+    }
+}
@@ -30,6 +30,17 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), null);
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(
+        RateLimitExceededException ex
+    ) {
+        return buildResponse(
+            HttpStatus.TOO_MANY_REQUESTS,
+            ex.getMessage(),
+            null
+        );
+    }
+
     @ExceptionHandler(WebExchangeBindException.class)
     public ResponseEntity<ErrorResponse> handleValidation(
         WebExchangeBindException ex
@@ -0,0 +1,52 @@
+package dev.artiz.financeassistantapi.predictions;
+
+import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+
+/**
+ * A strategy whose fitted model is a fixed-size vector of sufficient
+ * statistics. The vector absorbs a change to the latest (or a new) month
+ * in O(1) and produces a forecast in O(1), so it can be persisted and kept
+ * current from transaction writes instead of being refitted per request.
+ */
+public interface IncrementalPredictionStrategy extends PredictionStrategy {
+    /**
+     * Full fit; index 0 of the state corresponds to the series start month.
+     */
+    double[] fit(MonthlySeries series, TransactionCategory category);
+
+    /**
+     * Adds {@code delta} to the month at {@code monthIndex}, appending empty
+     * months as needed. Returns false when the month precedes the latest one
+     * in the state, which requires a full refit.
+     */
+    boolean apply(double[] state, int monthIndex, double delta);
+
+    PredictionDTO.Prediction forecast(
+        double[] state,
+        TransactionCategory category
+    );
+
+    /**
+     * Point forecasts for the next {@code horizon} months from the state.
+     */
+    double[] forecast(double[] state, int horizon);
+
+    @Override
+    default double[] predict(
+        MonthlySeries series,
+        TransactionCategory category,
+        int horizon
+    ) {
+        return forecast(fit(series, category), horizon);
+    }
+
+    @Override
+    default PredictionDTO.Prediction predictNextMonth(
+        MonthlySeries series,
+        TransactionCategory category
+    ) {
+        return forecast(fit(series, category), category);
+    }
+}
@@ -3,8 +3,12 @@ package dev.artiz.financeassistantapi.predictions;
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -16,10 +20,36 @@ public class PredictionController {
 
     @PostMapping("/next-month")
     public Mono<ResponseEntity<PredictionDTO.Prediction>> predictNextMonth(
-        @Valid @RequestBody PredictionDTO.PredictionRequest request
+        @Valid @RequestBody PredictionDTO.PredictionRequest request,
+        @AuthenticationPrincipal Jwt jwt
     ) {
         return predictionService
-            .predictNextMonth(request.category())
+            .predictNextMonth(jwt.getSubject(), request.category())
             .map(ResponseEntity::ok);
     }
+
+    @PostMapping("/forecast")
+    public Mono<ResponseEntity<PredictionDTO.Forecast>> forecast(
+        @Valid @RequestBody PredictionDTO.ForecastRequest request,
+        @AuthenticationPrincipal Jwt jwt
+    ) {
+        return predictionService
+            .forecast(jwt.getSubject(), request.category(), request.horizon())
+            .map(ResponseEntity::ok);
+    }
+
+    @PostMapping(
+        value = "/next-month/batch",
+        produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public Flux<PredictionDTO.Prediction> predictNextMonthBatch(
+        @RequestBody(required = false)
+        PredictionDTO.BatchPredictionRequest request,
+        @AuthenticationPrincipal Jwt jwt
+    ) {
+        return predictionService.predictNextMonthBatch(
+            jwt.getSubject(),
+            request == null ? null : request.categories()
+        );
+    }
 }
@@ -0,0 +1,92 @@
+package dev.artiz.financeassistantapi.predictions;
+
+import dev.artiz.financeassistantapi.config.RateLimiter;
+import dev.artiz.financeassistantapi.exception.RateLimitExceededException;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Prices prediction work in rate-limit tokens. Every call already paid one
+ * token at the filter, which is all a cached result costs. Computing one is
+ * charged on top: each strategy fits and backtests every month of history,
+ * and a forecast extends the chosen fit over its horizon, at
+ * {@code rate-limit.predictions.work-per-token} months per token.
+ * <p>
+ * A charge never exceeds what a full bucket holds after the call's own
+ * token, so the most expensive request drains the bucket instead of being
+ * refused forever. Outside a request, as in the precompute job, nothing is
+ * charged.
+ */
+@Component
+@RequiredArgsConstructor
+public class PredictionCosts {
+
+    private final RateLimiter rateLimiter;
+
+    @Value("${rate-limit.predictions.work-per-token:500}")
+    private long workPerToken;
+
+    public static long work(MonthlySeries series, int strategies, int horizon) {
+        return (long) series.size() * (strategies + horizon);
+    }
+
+    public long tokens(long work) {
+        return Math.min(work / workPerToken, rateLimiter.capacity() - 1);
+    }
+
+    /**
+     * Charges the current caller, or errors with
+     * {@link RateLimitExceededException} when their bucket is short.
+     */
+    public Mono<Void> charge(long tokens) {
+        if (tokens <= 0) {
+            return Mono.empty();
+        }
+        return Mono.deferContextual(context ->
+            RateLimiter.caller(context)
+                .map(caller ->
+                    rateLimiter
+                        .tryConsume(caller.key(), tokens)
+                        .flatMap(allowed -> {
+                            if (allowed) {
+                                return Mono.<Void>empty();
+                            }
+                            rateLimiter.rejected(caller.path());
+                            return Mono.error(
+                                new RateLimitExceededException(
+                                    "Too many requests. Computing this " +
+                                    "prediction costs " +
+                                    tokens +
+                                    " more tokens; please slow down."
+                                )
+                            );
+                        })
+                )
+                .orElse(Mono.empty())
+        );
+    }
+
+    public Mono<Void> refund(long tokens) {
+        if (tokens <= 0) {
+            return Mono.empty();
+        }
+        return Mono.deferContextual(context ->
+            RateLimiter.caller(context)
+                .map(caller -> rateLimiter.refund(caller.key(), tokens))
+                .orElse(Mono.empty())
+        );
+    }
+
+    /**
+     * Runs the work after charging for it, and refunds the charge if the work
+     * fails.
+     */
+    public <T> Mono<T> charged(long tokens, Mono<T> work) {
+        return charge(tokens).then(
+            work.onErrorResume(e -> refund(tokens).then(Mono.error(e)))
+        );
+    }
+}
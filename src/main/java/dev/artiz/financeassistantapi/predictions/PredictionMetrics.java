@@ -0,0 +1,127 @@
+package dev.artiz.financeassistantapi.predictions;
+
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters of the prediction path, all tagged by category and published
+ * through /actuator/prometheus. Latency timers publish percentile
+ * histograms so quantiles can be aggregated across instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class PredictionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Records history load latency and, per category, how many months came back.
+     */
+    public <T> void historyFetched(
+        Timer.Sample sample,
+        Collection<TransactionCategory> categories,
+        Map<TransactionCategory, List<T>> history
+    ) {
+        sample.stop(
+            Timer.builder("predictions.history.fetch")
+                .description("Time to load monthly history")
+                .tag("category", categoryTag(categories))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+        );
+        for (TransactionCategory category : categories) {
+            DistributionSummary.builder("predictions.history.size")
+                .description("Months of history loaded per category")
+                .baseUnit("months")
+                .tag("category", category.name())
+                .register(meterRegistry)
+                .record(history.getOrDefault(category, List.of()).size());
+        }
+    }
+
+    public <T> T aggregation(TransactionCategory category, Supplier<T> step) {
+        return Timer.builder("predictions.aggregation")
+            .description("Time to build the dense monthly series")
+            .tag("category", category.name())
+            .register(meterRegistry)
+            .record(step);
+    }
+
+    public void strategyFinished(
+        Timer.Sample sample,
+        String model,
+        TransactionCategory category,
+        String outcome
+    ) {
+        sample.stop(
+            Timer.builder("predictions.strategy.execution")
+                .description("Strategy prediction and backtest time")
+                .tag("model", model)
+                .tag("category", category.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+        );
+        if (!"completed".equals(outcome)) {
+            meterRegistry
+                .counter(
+                    "predictions.strategy.failures",
+                    "model",
+                    model,
+                    "category",
+                    category.name(),
+                    "reason",
+                    outcome
+                )
+                .increment();
+        }
+    }
+
+    public void strategySelected(String model, TransactionCategory category) {
+        meterRegistry
+            .counter(
+                "predictions.strategy.wins",
+                "model",
+                model,
+                "category",
+                category.name()
+            )
+            .increment();
+    }
+
+    /**
+     * Counts "predictions" cache lookups as hit, stale (a fresh enough
+     * previous value was served) or miss.
+     */
+    public void cacheLookup(TransactionCategory category, String result) {
+        meterRegistry
+            .counter(
+                "predictions.cache.lookups",
+                "category",
+                category.name(),
+                "result",
+                result
+            )
+            .increment();
+    }
+
+    private static String categoryTag(
+        Collection<TransactionCategory> categories
+    ) {
+        return categories.size() == 1
+            ? categories.iterator().next().name()
+            : "BATCH";
+    }
+}
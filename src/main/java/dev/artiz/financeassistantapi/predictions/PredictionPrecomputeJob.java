@@ -0,0 +1,228 @@
+package dev.artiz.financeassistantapi.predictions;
+
+import dev.artiz.financeassistantapi.transactions.CategoryDataVersions;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.repository.MonthlySpendingRepository;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps next-month predictions warm in the "predictions" cache and table so
+ * the endpoint is a cache read. A periodic sweep refreshes every user, and
+ * a short tick recomputes the categories of users whose data version moved
+ * once a burst of writes has settled.
+ * <p>
+ * Users are split across nodes by the hash of their id: a node only
+ * precomputes users with {@code hash mod shard-count == shard-index}, so
+ * several nodes share the work without computing the same user twice.
+ * <p>
+ * Both run off the scheduling thread, a bounded number of users at a time,
+ * and skip a run while their previous one is still going, so a slow user
+ * delays neither the other job nor the rest of the scheduled tasks.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PredictionPrecomputeJob {
+
+    private static final List<TransactionCategory> ALL_CATEGORIES = List.copyOf(
+        EnumSet.allOf(TransactionCategory.class)
+    );
+
+    private final PredictionService predictionService;
+    private final CategoryDataVersions categoryDataVersions;
+    private final MonthlySpendingRepository monthlySpendingRepository;
+
+    private final Scheduler jpaScheduler;
+
+    private final Map<String, Map<TransactionCategory, Long>> lastSeen =
+        new ConcurrentHashMap<>();
+    private final Map<String, Map<TransactionCategory, Long>> lastComputed =
+        new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    @Value("${forecasting.precompute.timeout:5m}")
+    private Duration timeout;
+
+    @Value("${forecasting.precompute.shard-index:0}")
+    private int shardIndex;
+
+    @Value("${forecasting.precompute.shard-count:1}")
+    private int shardCount;
+
+    // Users precomputed at once by the sweep and by the refresh tick
+    @Value("${forecasting.precompute.concurrency:4}")
+    private int concurrency;
+
+    @Scheduled(
+        initialDelayString = "${forecasting.precompute.initial-delay:PT1M}",
+        fixedDelayString = "${forecasting.precompute.interval:PT5M}"
+    )
+    public void refreshAll() {
+        if (!sweeping.compareAndSet(false, true)) {
+            log.debug("Previous prediction precompute still running");
+            return;
+        }
+        Mono
+            .fromCallable(() ->
+                monthlySpendingRepository
+                    .findUserIds()
+                    .stream()
+                    .filter(this::ownedByThisShard)
+                    .toList()
+            )
+            .subscribeOn(jpaScheduler)
+            .flatMap(users ->
+                Flux
+                    .fromIterable(users)
+                    .flatMap(
+                        userId -> precompute(userId, ALL_CATEGORIES),
+                        concurrency
+                    )
+                    .then(Mono.just(users.size()))
+            )
+            .doFinally(signal -> sweeping.set(false))
+            .subscribe(
+                users ->
+                    log.info(
+                        "Precomputed predictions for {} users of shard {}/{}",
+                        users,
+                        shardIndex,
+                        shardCount
+                    ),
+                e -> log.warn("Prediction precompute failed: {}", e.getMessage())
+            );
+    }
+
+    @Scheduled(
+        initialDelayString = "${forecasting.precompute.initial-delay:PT1M}",
+        fixedDelayString = "${forecasting.precompute.debounce:PT30S}"
+    )
+    public void refreshChanged() {
+        if (!refreshing.compareAndSet(false, true)) {
+            log.debug("Previous prediction refresh still running");
+            return;
+        }
+        Mono
+            .fromCallable(categoryDataVersions::changedUsers)
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapMany(Flux::fromIterable)
+            .filter(this::ownedByThisShard)
+            .flatMap(this::refreshIfSettled, concurrency)
+            .doFinally(signal -> refreshing.set(false))
+            .subscribe(
+                null,
+                e -> log.warn("Prediction refresh failed: {}", e.getMessage())
+            );
+    }
+
+    // A category is due when it changed since the last run but has been
+    // quiet for one tick, so a burst of writes triggers a single refresh.
+    private Mono<Void> refreshIfSettled(String userId) {
+        return Mono
+            .fromCallable(() ->
+                categoryDataVersions.current(userId, ALL_CATEGORIES)
+            )
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(versions -> {
+                Map<TransactionCategory, Long> seen = lastSeen.getOrDefault(
+                    userId,
+                    Map.of()
+                );
+                Map<TransactionCategory, Long> computed =
+                    lastComputed.getOrDefault(userId, Map.of());
+
+                List<TransactionCategory> pending = versions
+                    .entrySet()
+                    .stream()
+                    .filter(e -> !e.getValue().equals(computed.get(e.getKey())))
+                    .map(Map.Entry::getKey)
+                    .toList();
+                List<TransactionCategory> due = pending
+                    .stream()
+                    .filter(c -> versions.get(c).equals(seen.get(c)))
+                    .toList();
+
+                lastSeen.put(userId, versions);
+                Mono<Void> refresh = due.isEmpty()
+                    ? Mono.empty()
+                    : precompute(userId, due);
+                if (due.size() < pending.size()) {
+                    return refresh;
+                }
+                // Nothing left to settle; forget the user until the next write
+                return refresh.then(
+                    Mono.fromRunnable(() -> {
+                        categoryDataVersions.acknowledge(userId);
+                        lastSeen.remove(userId);
+                        lastComputed.remove(userId);
+                    }).subscribeOn(Schedulers.boundedElastic())
+                );
+            })
+            .onErrorResume(e -> {
+                log.warn(
+                    "Prediction refresh failed for user {}: {}",
+                    userId,
+                    e.getMessage()
+                );
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private Mono<Void> precompute(
+        String userId,
+        List<TransactionCategory> categories
+    ) {
+        return Mono
+            .fromCallable(() -> categoryDataVersions.current(userId, categories))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(versions ->
+                predictionService
+                    .predictNextMonthBatch(userId, categories)
+                    .count()
+                    .timeout(timeout)
+                    .doOnNext(computed -> {
+                        lastComputed
+                            .computeIfAbsent(userId, u ->
+                                new ConcurrentHashMap<>()
+                            )
+                            .putAll(versions);
+                        log.debug(
+                            "Precomputed {} of {} category predictions for user {}",
+                            computed,
+                            categories.size(),
+                            userId
+                        );
+                    })
+            )
+            .onErrorResume(e -> {
+                log.warn(
+                    "Prediction precompute failed for user {}: {}",
+                    userId,
+                    e.getMessage()
+                );
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private boolean ownedByThisShard(String userId) {
+        // String.hashCode is specified, so every node agrees on the split
+        return Math.floorMod(userId.hashCode(), shardCount) == shardIndex;
+    }
+}
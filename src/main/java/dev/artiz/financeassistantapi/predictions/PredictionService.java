@@ -2,20 +2,33 @@ package dev.artiz.financeassistantapi.predictions;
 
 import dev.artiz.financeassistantapi.exception.InsufficientDataException;
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
+import dev.artiz.financeassistantapi.predictions.mappers.PredictionMapper;
+import dev.artiz.financeassistantapi.predictions.model.ModelState;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 import dev.artiz.financeassistantapi.predictions.model.Prediction;
 import dev.artiz.financeassistantapi.predictions.repository.PredictionRepository;
-import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.CategoryDataVersions;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
-import dev.artiz.financeassistantapi.transactions.repository.TransactionRepository;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionStore;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.support.TransactionOperations;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 @Slf4j
@@ -23,90 +36,696 @@ import reactor.core.scheduler.Schedulers;
 @RequiredArgsConstructor
 public class PredictionService {
 
-    private final TransactionRepository transactionRepository;
+    private static final String PREDICTIONS_CACHE = "predictions";
+
+    private final TransactionStore transactionStore;
     private final PredictionRepository predictionRepository;
     private final List<PredictionStrategy> strategies;
-    private final TransactionOperations transactionOperations;
+    private final Scheduler predictionStrategyScheduler;
+    private final Scheduler jpaScheduler;
+    private final CategoryDataVersions categoryDataVersions;
+    private final CacheManager cacheManager;
+    private final StrategyStateStore strategyStateStore;
+    private final WalkForwardBacktester backtester;
+    private final PredictionMetrics predictionMetrics;
+    private final PredictionCosts predictionCosts;
+
+    private final Map<Scope, Mono<PredictionDTO.Prediction>> inFlight =
+        new ConcurrentHashMap<>();
+
+    @Value("${forecasting.strategies.timeout:2s}")
+    private Duration strategyTimeout;
+
+    // How old a precomputed prediction may be when served after a write
+    @Value("${forecasting.precompute.max-staleness:15m}")
+    private Duration maxStaleness;
 
+    /**
+     * Predicts the user's next-month spending in a category. Served from the
+     * "predictions" cache while the user's category data version is
+     * unchanged. After a write, the latest precomputed value is served until
+     * it is older than the configured staleness window; only then is the
+     * prediction computed on the request path.
+     */
     public Mono<PredictionDTO.Prediction> predictNextMonth(
+        String userId,
+        TransactionCategory category
+    ) {
+        // Single flight: concurrent callers for the same user and category share
+        // one lookup and computation, and the result fans out to all of them.
+        return Mono.defer(() ->
+            inFlight.computeIfAbsent(new Scope(userId, category), key ->
+                lookupOrCompute(userId, category)
+                    .doFinally(signal -> inFlight.remove(key))
+                    .cache()
+            )
+        );
+    }
+
+    private Mono<PredictionDTO.Prediction> lookupOrCompute(
+        String userId,
         TransactionCategory category
     ) {
         return Mono
-            .fromCallable(() ->
-                transactionOperations.execute(status ->
-                    predictNextMonthBlocking(category)
+            .fromCallable(() -> categoryDataVersions.current(userId, category))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(version -> {
+                String key = cacheKey(userId, category, version);
+                return Mono
+                    .justOrEmpty(cachedPrediction(key))
+                    .doOnNext(p -> predictionMetrics.cacheLookup(category, "hit"))
+                    .switchIfEmpty(
+                        Mono.fromCallable(() ->
+                            cachedPrediction(latestKey(userId, category))
+                                .filter(this::isFresh)
+                                .orElse(null)
+                        ).doOnNext(p ->
+                            predictionMetrics.cacheLookup(category, "stale")
+                        )
+                    )
+                    .switchIfEmpty(
+                        Mono.defer(() -> {
+                            predictionMetrics.cacheLookup(category, "miss");
+                            return computeAndStore(
+                                userId,
+                                category,
+                                version,
+                                key
+                            );
+                        })
+                    );
+            });
+    }
+
+    private Mono<PredictionDTO.Prediction> computeAndStore(
+        String userId,
+        TransactionCategory category,
+        long version,
+        String cacheKey
+    ) {
+        return loadHistory(userId, List.of(category))
+            .map(history -> toSeries(category, history))
+            .flatMap(series ->
+                predictionCosts.charged(
+                    predictionCosts.tokens(
+                        PredictionCosts.work(series, strategies.size(), 0)
+                    ),
+                    selectBestPrediction(series, userId, category).map(
+                        Selection::prediction
+                    )
                 )
             )
-            .subscribeOn(Schedulers.boundedElastic());
+            .flatMap(best ->
+                Mono
+                    .fromRunnable(() -> {
+                        Prediction entity = toEntity(userId, best, version);
+                        if (!isPersisted(entity)) {
+                            predictionRepository.save(entity);
+                        }
+                    })
+                    .subscribeOn(jpaScheduler)
+                    .then(
+                        Mono
+                            .fromRunnable(() -> cache(userId, cacheKey, best))
+                            .subscribeOn(Schedulers.boundedElastic())
+                    )
+                    .thenReturn(best)
+            );
+    }
+
+    /**
+     * Forecast path for the user's next {@code horizon} months. The model is picked
+     * the same way as for the next-month prediction, then every horizon is
+     * read off that model's single fit.
+     */
+    public Mono<PredictionDTO.Forecast> forecast(
+        String userId,
+        TransactionCategory category,
+        int horizon
+    ) {
+        return loadHistory(userId, List.of(category))
+            .map(history -> toSeries(category, history))
+            .flatMap(series ->
+                predictionCosts.charged(
+                    predictionCosts.tokens(
+                        PredictionCosts.work(series, strategies.size(), horizon)
+                    ),
+                    selectBestPrediction(
+                        series,
+                        userId,
+                        category
+                    ).flatMap(selected ->
+                        Mono
+                            .fromCallable(() ->
+                                PredictionMapper.mapToForecast(
+                                    category,
+                                    selected.prediction(),
+                                    strategyStateStore.predict(
+                                        strategyNamed(
+                                            selected
+                                                .prediction()
+                                                .metadata()
+                                                .selectedModel()
+                                        ),
+                                        series,
+                                        category,
+                                        selected.state(),
+                                        horizon
+                                    )
+                                )
+                            )
+                            .subscribeOn(predictionStrategyScheduler)
+                            .timeout(strategyTimeout)
+                    )
+                )
+            );
+    }
+
+    /**
+     * Forecasts several of the user's categories from one aggregate query. The
+     * computation of the uncached categories is charged up front, so the stream
+     * fails before its first element if the caller cannot afford it. Cached
+     * categories are emitted first; the rest are emitted as soon as each one
+     * completes. Categories without enough history are skipped, and results
+     * for a data version not stored yet are persisted in a single batched
+     * insert once the last category has finished.
+     */
+    public Flux<PredictionDTO.Prediction> predictNextMonthBatch(
+        String userId,
+        Collection<TransactionCategory> categories
+    ) {
+        Collection<TransactionCategory> requested = categories == null ||
+            categories.isEmpty()
+            ? EnumSet.allOf(TransactionCategory.class)
+            : categories;
+
+        return Mono
+            .fromCallable(() -> categoryDataVersions.current(userId, requested))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapMany(versions -> {
+                Map<TransactionCategory, String> keys = new EnumMap<>(
+                    TransactionCategory.class
+                );
+                versions.forEach((category, version) ->
+                    keys.put(category, cacheKey(userId, category, version))
+                );
+
+                List<PredictionDTO.Prediction> cached = new ArrayList<>();
+                List<TransactionCategory> misses = new ArrayList<>();
+                keys.forEach((category, key) -> {
+                    Optional<PredictionDTO.Prediction> hit = cachedPrediction(
+                        key
+                    );
+                    hit.ifPresentOrElse(cached::add, () -> misses.add(category));
+                    predictionMetrics.cacheLookup(
+                        category,
+                        hit.isPresent() ? "hit" : "miss"
+                    );
+                });
+
+                if (misses.isEmpty()) {
+                    return Flux.fromIterable(cached);
+                }
+                return loadHistory(userId, misses).flatMapMany(history -> {
+                    Map<TransactionCategory, MonthlySeries> series =
+                        batchSeries(misses, history);
+                    long tokens = predictionCosts.tokens(
+                        series
+                            .values()
+                            .stream()
+                            .mapToLong(s ->
+                                PredictionCosts.work(s, strategies.size(), 0)
+                            )
+                            .sum()
+                    );
+
+                    return predictionCosts
+                        .charge(tokens)
+                        .thenMany(
+                            Flux
+                                .fromIterable(cached)
+                                .concatWith(
+                                    computeBatch(
+                                        userId,
+                                        series,
+                                        versions,
+                                        keys,
+                                        tokens
+                                    )
+                                )
+                        );
+                });
+            });
+    }
+
+    private Map<TransactionCategory, MonthlySeries> batchSeries(
+        List<TransactionCategory> categories,
+        Map<TransactionCategory, List<MonthlyTotal>> history
+    ) {
+        Map<TransactionCategory, MonthlySeries> series = new EnumMap<>(
+            TransactionCategory.class
+        );
+        for (TransactionCategory category : categories) {
+            try {
+                series.put(category, toSeries(category, history));
+            } catch (InsufficientDataException e) {
+                log.warn(
+                    "Batch prediction skipped category {}: {}",
+                    category,
+                    e.getMessage()
+                );
+            }
+        }
+        return series;
+    }
+
+    private Flux<PredictionDTO.Prediction> computeBatch(
+        String userId,
+        Map<TransactionCategory, MonthlySeries> series,
+        Map<TransactionCategory, Long> versions,
+        Map<TransactionCategory, String> cacheKeys,
+        long charged
+    ) {
+        if (series.isEmpty()) {
+            return Flux.empty();
+        }
+
+        List<PredictionDTO.Prediction> completed = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        AtomicLong unspent = new AtomicLong(charged);
+
+        return Flux
+            .fromIterable(series.entrySet())
+            .flatMap(entry ->
+                selectBestPrediction(entry.getValue(), userId, entry.getKey())
+                    .map(Selection::prediction)
+                    .onErrorResume(e -> {
+                        log.warn(
+                            "Batch prediction skipped category {}: {}",
+                            entry.getKey(),
+                            e.getMessage()
+                        );
+                        // Give back the failed category's share of the charge
+                        long share = predictionCosts.tokens(
+                            PredictionCosts.work(
+                                entry.getValue(),
+                                strategies.size(),
+                                0
+                            )
+                        );
+                        long refund = Math.min(
+                            share,
+                            unspent.getAndUpdate(u -> Math.max(0, u - share))
+                        );
+                        return predictionCosts.refund(refund).then(Mono.empty());
+                    })
+            )
+            .doOnNext(completed::add)
+            .concatWith(
+                Mono
+                    .fromRunnable(() ->
+                        predictionRepository.saveAll(
+                            completed
+                                .stream()
+                                .map(p ->
+                                    toEntity(
+                                        userId,
+                                        p,
+                                        versions.get(p.category())
+                                    )
+                                )
+                                .filter(p -> !isPersisted(p))
+                                .toList()
+                        )
+                    )
+                    .subscribeOn(jpaScheduler)
+                    .then(
+                        Mono
+                            .fromRunnable(() ->
+                                completed.forEach(p ->
+                                    cache(userId, cacheKeys.get(p.category()), p)
+                                )
+                            )
+                            .subscribeOn(Schedulers.boundedElastic())
+                    )
+                    .then(Mono.empty())
+            );
+    }
+
+    private Optional<PredictionDTO.Prediction> cachedPrediction(String key) {
+        return Optional.ofNullable(
+            predictionsCache().get(key, PredictionDTO.Prediction.class)
+        );
+    }
+
+    private void cache(
+        String userId,
+        String key,
+        PredictionDTO.Prediction prediction
+    ) {
+        predictionsCache().put(key, prediction);
+        predictionsCache()
+            .put(latestKey(userId, prediction.category()), prediction);
+    }
+
+    private boolean isFresh(PredictionDTO.Prediction prediction) {
+        return (
+            prediction.createdAt() != null &&
+            prediction
+                .createdAt()
+                .isAfter(LocalDateTime.now().minus(maxStaleness))
+        );
+    }
+
+    private Cache predictionsCache() {
+        return Objects.requireNonNull(cacheManager.getCache(PREDICTIONS_CACHE));
     }
 
-    private PredictionDTO.Prediction predictNextMonthBlocking(
+    // Writes bump the version, so stale entries are never read again and
+    // simply expire with the cache TTL.
+    private static String cacheKey(
+        String userId,
+        TransactionCategory category,
+        long version
+    ) {
+        return (
+            userId +
+            ":" +
+            category +
+            ":" +
+            YearMonth.now().plusMonths(1) +
+            ":" +
+            version
+        );
+    }
+
+    private static String latestKey(
+        String userId,
         TransactionCategory category
     ) {
-        List<Transaction> history =
-            transactionRepository.findByCategoryOrderByCreatedAtAsc(category);
+        return (
+            userId + ":" + category + ":" + YearMonth.now().plusMonths(1) + ":latest"
+        );
+    }
+
+    private Mono<Map<TransactionCategory, List<MonthlyTotal>>> loadHistory(
+        String userId,
+        Collection<TransactionCategory> categories
+    ) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = predictionMetrics.start();
+            return transactionStore
+                .findMonthlyTotals(userId, categories)
+                .map(totals -> {
+                    Map<TransactionCategory, List<MonthlyTotal>> history =
+                        new EnumMap<>(TransactionCategory.class);
+                    for (MonthlyTotal total : totals) {
+                        history
+                            .computeIfAbsent(
+                                total.category(),
+                                c -> new ArrayList<>()
+                            )
+                            .add(total);
+                    }
+                    predictionMetrics.historyFetched(
+                        sample,
+                        categories,
+                        history
+                    );
+                    return history;
+                });
+        });
+    }
+
+    private MonthlySeries toSeries(
+        TransactionCategory category,
+        Map<TransactionCategory, List<MonthlyTotal>> history
+    ) {
+        List<MonthlyTotal> totals = history.getOrDefault(category, List.of());
+
+        long transactionCount = totals
+            .stream()
+            .mapToLong(MonthlyTotal::transactionCount)
+            .sum();
 
-        if (history.size() < 3) {
+        if (transactionCount < 3) {
             throw new InsufficientDataException(
                 "Insufficient data for category: " + category
             );
         }
 
-        Map<YearMonth, Double> monthlyData = history
-            .stream()
-            .collect(
-                Collectors.groupingBy(
-                    t -> YearMonth.from(t.getCreatedAt()),
-                    TreeMap::new,
-                    Collectors.summingDouble(t -> t.getAmount().doubleValue())
-                )
-            );
+        // Built once and shared by every strategy
+        return predictionMetrics.aggregation(category, () ->
+            MonthlySeries.from(totals)
+        );
+    }
 
-        PredictionDTO.Prediction bestPrediction = strategies
+    // All strategies run concurrently; the best one is picked from the ones
+    // that finished before their deadline, so one slow model cannot set the latency.
+    // Models are ranked by backtest score; the in-sample fit, which each model
+    // reports on its own scale, only breaks ties when there is nothing to backtest.
+    // Stored model states are loaded and refits stored on the JPA scheduler, so
+    // the strategy scheduler and its deadline only cover the math.
+    private Mono<Selection> selectBestPrediction(
+        MonthlySeries series,
+        String userId,
+        TransactionCategory category
+    ) {
+        return Mono
+            .fromCallable(() -> strategyStateStore.load(userId, category))
+            .subscribeOn(jpaScheduler)
+            .flatMap(stored ->
+                Flux
+                    .fromIterable(strategies)
+                    .flatMap(strategy ->
+                        tryPredict(
+                            strategy,
+                            series,
+                            category,
+                            stored.get(strategy.getModelName())
+                        )
+                    )
+                    .collectList()
+                    .flatMap(outcomes ->
+                        storeStates(
+                            userId,
+                            category,
+                            series,
+                            stored,
+                            outcomes
+                        ).thenReturn(outcomes)
+                    )
+            )
+            .map(outcomes -> {
+                StrategyOutcome best = outcomes
+                    .stream()
+                    .filter(o -> o.status() == OutcomeStatus.COMPLETED)
+                    .max(
+                        Comparator.comparing(
+                            (StrategyOutcome o) ->
+                                o.prediction().confidenceLevel(),
+                            Comparator.nullsFirst(Comparator.naturalOrder())
+                        ).thenComparingDouble(o -> o.prediction().modelFit())
+                    )
+                    .orElseThrow(() ->
+                        new RuntimeException(
+                            "No model could generate a valid prediction"
+                        )
+                    );
+
+                predictionMetrics.strategySelected(best.modelName(), category);
+                return new Selection(
+                    best
+                        .prediction()
+                        .withMetadata(
+                            new PredictionDTO.Metadata(
+                                best.modelName(),
+                                modelsWithStatus(
+                                    outcomes,
+                                    OutcomeStatus.TIMED_OUT
+                                ),
+                                modelsWithStatus(outcomes, OutcomeStatus.FAILED)
+                            )
+                        ),
+                    best.state()
+                );
+            });
+    }
+
+    private Mono<Void> storeStates(
+        String userId,
+        TransactionCategory category,
+        MonthlySeries series,
+        Map<String, ModelState> stored,
+        List<StrategyOutcome> outcomes
+    ) {
+        List<StrategyStateStore.State> states = outcomes
             .stream()
-            .map(s -> tryPredict(s, monthlyData, category))
-            .filter(Objects::nonNull)
-            .max(Comparator.comparingDouble(PredictionDTO.Prediction::modelFit))
-            .orElseThrow(() ->
-                new RuntimeException(
-                    "No model could generate a valid prediction"
-                )
-            );
+            .map(StrategyOutcome::state)
+            .filter(state -> state != null && state.refitted())
+            .toList();
+        if (states.isEmpty()) {
+            return Mono.empty();
+        }
 
-        saveToDatabase(bestPrediction, category);
-        return bestPrediction;
+        return Mono
+            .fromRunnable(() ->
+                strategyStateStore.store(userId, category, series, stored, states)
+            )
+            .subscribeOn(jpaScheduler)
+            // Only an optimization: the next read refits again
+            .onErrorResume(e -> {
+                log.warn(
+                    "Could not store model states for category {}: {}",
+                    category,
+                    e.getMessage()
+                );
+                return Mono.empty();
+            })
+            .then();
     }
 
-    private PredictionDTO.Prediction tryPredict(
+    private Mono<StrategyOutcome> tryPredict(
         PredictionStrategy strategy,
-        Map<YearMonth, Double> monthlyData,
-        TransactionCategory category
+        MonthlySeries series,
+        TransactionCategory category,
+        ModelState stored
     ) {
-        try {
-            return strategy.predictNextMonth(monthlyData, category);
-        } catch (Exception e) {
-            log.warn(
-                "Strategy {} failed for category {}: {}",
-                strategy.getModelName(),
-                category,
-                e.getMessage()
-            );
-            return null;
-        }
+        Timer.Sample sample = predictionMetrics.start();
+        return Mono
+            .fromCallable(() -> {
+                StrategyStateStore.State state = strategyStateStore.resolve(
+                    strategy,
+                    series,
+                    category,
+                    stored
+                );
+                PredictionDTO.Prediction prediction = strategyStateStore.predict(
+                    strategy,
+                    series,
+                    category,
+                    state
+                );
+                OptionalDouble score = backtester.score(
+                    strategy,
+                    series,
+                    category
+                );
+                return new StrategyOutcome(
+                    strategy.getModelName(),
+                    score.isPresent()
+                        ? prediction.withConfidenceLevel(score.getAsDouble())
+                        : prediction,
+                    OutcomeStatus.COMPLETED,
+                    state
+                );
+            })
+            .subscribeOn(predictionStrategyScheduler)
+            .timeout(strategyTimeout)
+            .doOnNext(outcome ->
+                predictionMetrics.strategyFinished(
+                    sample,
+                    outcome.modelName(),
+                    category,
+                    "completed"
+                )
+            )
+            .onErrorResume(e -> {
+                boolean timedOut = e instanceof TimeoutException;
+                log.warn(
+                    "Strategy {} failed for category {}: {}",
+                    strategy.getModelName(),
+                    category,
+                    timedOut
+                        ? "deadline of " + strategyTimeout + " exceeded"
+                        : e.getMessage()
+                );
+                predictionMetrics.strategyFinished(
+                    sample,
+                    strategy.getModelName(),
+                    category,
+                    timedOut ? "timed_out" : "failed"
+                );
+                return Mono.just(
+                    new StrategyOutcome(
+                        strategy.getModelName(),
+                        null,
+                        timedOut
+                            ? OutcomeStatus.TIMED_OUT
+                            : OutcomeStatus.FAILED,
+                        null
+                    )
+                );
+            });
+    }
+
+    private PredictionStrategy strategyNamed(String modelName) {
+        return strategies
+            .stream()
+            .filter(s -> s.getModelName().equals(modelName))
+            .findFirst()
+            .orElseThrow();
     }
 
-    private void saveToDatabase(
+    private static List<String> modelsWithStatus(
+        List<StrategyOutcome> outcomes,
+        OutcomeStatus status
+    ) {
+        return outcomes
+            .stream()
+            .filter(o -> o.status() == status)
+            .map(StrategyOutcome::modelName)
+            .toList();
+    }
+
+    // The precompute sweep recomputes whatever has expired from the cache;
+    // only a new data version or target month is worth another history row.
+    private boolean isPersisted(Prediction prediction) {
+        return predictionRepository.existsByUserIdAndCategoryAndTargetDateAndDataVersion(
+            prediction.getUserId(),
+            prediction.getCategory(),
+            prediction.getTargetDate(),
+            prediction.getDataVersion()
+        );
+    }
+
+    private Prediction toEntity(
+        String userId,
         PredictionDTO.Prediction dto,
-        TransactionCategory category
+        long version
     ) {
         Prediction entity = new Prediction();
-        entity.setCategory(category);
+        entity.setUserId(userId);
+        entity.setCategory(dto.category());
         entity.setPredictedAmount(dto.predictedAmount());
-        entity.setConfidenceLevel(dto.modelFit());
+        entity.setModelFit(dto.modelFit());
+        entity.setConfidenceLevel(dto.confidenceLevel());
         entity.setTargetDate(
             LocalDate.now().plusMonths(1).withDayOfMonth(1).atStartOfDay()
         );
+        entity.setDataVersion(version);
+        return entity;
+    }
 
-        predictionRepository.save(entity);
+    private enum OutcomeStatus {
+        COMPLETED,
+        FAILED,
+        TIMED_OUT,
     }
+
+    private record Scope(String userId, TransactionCategory category) {}
+
+    private record StrategyOutcome(
+        String modelName,
+        PredictionDTO.Prediction prediction,
+        OutcomeStatus status,
+        StrategyStateStore.State state
+    ) {}
+
+    // The chosen prediction and the model state the forecast path reuses
+    private record Selection(
+        PredictionDTO.Prediction prediction,
+        StrategyStateStore.State state
+    ) {}
 }
@@ -1,14 +1,36 @@
 package dev.artiz.financeassistantapi.predictions;
 
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
-import java.time.YearMonth;
-import java.util.Map;
 
 public interface PredictionStrategy {
     PredictionDTO.Prediction predictNextMonth(
-        Map<YearMonth, Double> monthlyData,
+        MonthlySeries series,
         TransactionCategory category
     );
+
+    /**
+     * Point forecasts for the next {@code horizon} months, index 0 being the
+     * month after the series end. All horizons come from a single fit.
+     */
+    double[] predict(
+        MonthlySeries series,
+        TransactionCategory category,
+        int horizon
+    );
+
+    /**
+     * Next-month prediction at one origin of a backtest. The same as
+     * {@link #predictNextMonth} unless a strategy can skip work that only
+     * pays off for the live series.
+     */
+    default PredictionDTO.Prediction predictForBacktest(
+        MonthlySeries training,
+        TransactionCategory category
+    ) {
+        return predictNextMonth(training, category);
+    }
+
     String getModelName();
 }
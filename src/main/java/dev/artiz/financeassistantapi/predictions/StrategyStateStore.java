@@ -0,0 +1,291 @@
+package dev.artiz.financeassistantapi.predictions;
+
+import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
+import dev.artiz.financeassistantapi.predictions.model.ModelState;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.predictions.repository.ModelStateRepository;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persists the state of {@link IncrementalPredictionStrategy} models.
+ * Writers fold each transaction into the stored state, so predictions only
+ * refit when the state is missing or no longer matches the history
+ * (deletes of older months, rollup rebuilds, missed updates), or once
+ * {@code forecasting.model-state.refit-after-months} months have been folded
+ * in since the last fit. Parameters chosen at fit time, such as Holt's
+ * alpha and beta, would otherwise never be re-optimized.
+ */
+@Slf4j
+@Component
+public class StrategyStateStore {
+
+    // Series sums are compared in cents
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.005");
+
+    private final ModelStateRepository modelStateRepository;
+    private final Map<String, IncrementalPredictionStrategy> incremental;
+
+    // 0 never refits a state that still describes the series
+    @Value("${forecasting.model-state.refit-after-months:6}")
+    private int refitAfterMonths;
+
+    public StrategyStateStore(
+        ModelStateRepository modelStateRepository,
+        List<PredictionStrategy> strategies
+    ) {
+        this.modelStateRepository = modelStateRepository;
+        this.incremental = strategies
+            .stream()
+            .filter(IncrementalPredictionStrategy.class::isInstance)
+            .map(IncrementalPredictionStrategy.class::cast)
+            .collect(
+                Collectors.toMap(
+                    PredictionStrategy::getModelName,
+                    Function.identity()
+                )
+            );
+    }
+
+    /**
+     * Folds an amount into every stored model of the user's category. Must be called
+     * inside the writer's transaction, so the state commits with the rollup.
+     * States that cannot absorb the change are dropped and refitted on read.
+     */
+    public void apply(
+        String userId,
+        TransactionCategory category,
+        YearMonth month,
+        BigDecimal amount
+    ) {
+        for (ModelState stored : modelStateRepository.findForUpdate(
+            userId,
+            category
+        )) {
+            if (advance(stored, month, amount)) {
+                modelStateRepository.save(stored);
+            } else {
+                modelStateRepository.delete(stored);
+            }
+        }
+    }
+
+    /**
+     * Folds an amount into a stored state in place. Returns false, leaving the
+     * state untouched, when it cannot absorb the change and has to be
+     * dropped instead.
+     */
+    public boolean advance(ModelState stored, YearMonth month, BigDecimal amount) {
+        IncrementalPredictionStrategy strategy = incremental.get(
+            stored.getModelName()
+        );
+        double[] state = stored.getState().clone();
+        int index = (int) ChronoUnit.MONTHS.between(
+            YearMonth.from(stored.getStartMonth()),
+            month
+        );
+
+        if (
+            strategy == null ||
+            index < 0 ||
+            !strategy.apply(state, index, amount.doubleValue())
+        ) {
+            return false;
+        }
+
+        stored.setState(state);
+        stored.setMonths(Math.max(stored.getMonths(), index + 1));
+        stored.setTotal(stored.getTotal().add(amount));
+        return true;
+    }
+
+    /**
+     * Drops every stored state, e.g. after the rollup was rebuilt.
+     */
+    public void invalidateAll() {
+        modelStateRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Stored states of the user's category by model name. Blocking; callers
+     * run it on the JPA scheduler before handing the states to the strategies.
+     */
+    public Map<String, ModelState> load(
+        String userId,
+        TransactionCategory category
+    ) {
+        return modelStateRepository
+            .findByUserIdAndCategory(userId, category)
+            .stream()
+            .collect(
+                Collectors.toMap(ModelState::getModelName, Function.identity())
+            );
+    }
+
+    /**
+     * The state a strategy forecasts from: the stored one while it still
+     * describes the series, otherwise a fresh fit. Pure computation, so it
+     * runs on the strategy scheduler. Strategies without incremental state
+     * get {@code null}.
+     */
+    public State resolve(
+        PredictionStrategy strategy,
+        MonthlySeries series,
+        TransactionCategory category,
+        ModelState stored
+    ) {
+        if (
+            !(strategy instanceof IncrementalPredictionStrategy incrementalStrategy)
+        ) {
+            return null;
+        }
+        if (
+            stored != null &&
+            describes(stored, series) &&
+            !dueForRefit(stored)
+        ) {
+            return new State(strategy.getModelName(), stored.getState(), false);
+        }
+        return new State(
+            strategy.getModelName(),
+            incrementalStrategy.fit(series, category),
+            true
+        );
+    }
+
+    /**
+     * Forecasts from a resolved state, or evaluates strategies without one.
+     */
+    public PredictionDTO.Prediction predict(
+        PredictionStrategy strategy,
+        MonthlySeries series,
+        TransactionCategory category,
+        State state
+    ) {
+        if (
+            state == null ||
+            !(strategy instanceof IncrementalPredictionStrategy incrementalStrategy)
+        ) {
+            return strategy.predictNextMonth(series, category);
+        }
+        return incrementalStrategy.forecast(state.values(), category);
+    }
+
+    /**
+     * Multi-horizon variant of {@link #predict(PredictionStrategy, MonthlySeries, TransactionCategory, State)}.
+     */
+    public double[] predict(
+        PredictionStrategy strategy,
+        MonthlySeries series,
+        TransactionCategory category,
+        State state,
+        int horizon
+    ) {
+        if (
+            state == null ||
+            !(strategy instanceof IncrementalPredictionStrategy incrementalStrategy)
+        ) {
+            return strategy.predict(series, category, horizon);
+        }
+        return incrementalStrategy.forecast(state.values(), horizon);
+    }
+
+    /**
+     * Persists the states that were refitted, reusing the rows {@link #load}
+     * returned. Blocking, like {@link #load}.
+     */
+    public void store(
+        String userId,
+        TransactionCategory category,
+        MonthlySeries series,
+        Map<String, ModelState> stored,
+        Collection<State> states
+    ) {
+        for (State state : states) {
+            if (state.refitted()) {
+                save(
+                    Optional.ofNullable(stored.get(state.modelName())).orElseGet(
+                        ModelState::new
+                    ),
+                    state.modelName(),
+                    series,
+                    userId,
+                    category,
+                    state.values()
+                );
+            }
+        }
+    }
+
+    private void save(
+        ModelState entity,
+        String modelName,
+        MonthlySeries series,
+        String userId,
+        TransactionCategory category,
+        double[] state
+    ) {
+        entity.setUserId(userId);
+        entity.setCategory(category);
+        entity.setModelName(modelName);
+        entity.setStartMonth(series.start().atDay(1));
+        entity.setMonths(series.size());
+        entity.setTotal(sum(series));
+        entity.setFittedMonths(series.size());
+        entity.setState(state);
+        try {
+            modelStateRepository.save(entity);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent reader stored the same fit first
+            log.debug(
+                "Model state for {} {} {} already stored",
+                userId,
+                category,
+                modelName
+            );
+        }
+    }
+
+    private static boolean describes(ModelState stored, MonthlySeries series) {
+        return (
+            YearMonth.from(stored.getStartMonth()).equals(series.start()) &&
+            stored.getMonths() == series.size() &&
+            stored.getTotal().subtract(sum(series)).abs().compareTo(TOLERANCE) <=
+            0
+        );
+    }
+
+    private boolean dueForRefit(ModelState stored) {
+        if (refitAfterMonths <= 0) {
+            return false;
+        }
+        Integer fitted = stored.getFittedMonths();
+        return fitted == null || stored.getMonths() - fitted >= refitAfterMonths;
+    }
+
+    private static BigDecimal sum(MonthlySeries series) {
+        double total = 0;
+        for (double value : series.values()) {
+            total += value;
+        }
+        return BigDecimal.valueOf(total);
+    }
+
+    /**
+     * A strategy's model state, and whether it was refitted and still has
+     * to be stored.
+     */
+    public record State(String modelName, double[] values, boolean refitted) {}
+}
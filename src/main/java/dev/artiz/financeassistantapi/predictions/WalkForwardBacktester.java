@@ -0,0 +1,105 @@
+package dev.artiz.financeassistantapi.predictions;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.artiz.financeassistantapi.exception.InsufficientDataException;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.util.Arrays;
+import java.util.OptionalDouble;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scores strategies by rolling-origin (walk-forward) evaluation. At every
+ * origin the model only sees the months before it and forecasts the month
+ * at the origin; the score is one minus the mean of |actual - forecast| /
+ * (|actual| + |forecast|), so every model is rated on the same [0, 1] scale
+ * by out-of-sample error. Scores are memoized per model and series, so the
+ * backtest runs once per data change rather than once per request.
+ */
+@Component
+public class WalkForwardBacktester {
+
+    private static final int MIN_TRAINING_MONTHS = 3;
+
+    private final int maxOrigins;
+    private final Cache<ScoreKey, OptionalDouble> scores;
+
+    public WalkForwardBacktester(
+        @Value("${forecasting.backtest.max-origins:24}") int maxOrigins,
+        @Value("${forecasting.backtest.cache-size:1000}") long cacheSize
+    ) {
+        this.maxOrigins = maxOrigins;
+        this.scores = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * Out-of-sample score of the strategy on the series, or empty when the
+     * history is too short to hold out any month.
+     */
+    public OptionalDouble score(
+        PredictionStrategy strategy,
+        MonthlySeries series,
+        TransactionCategory category
+    ) {
+        return scores.get(new ScoreKey(strategy.getModelName(), series), key ->
+            evaluate(strategy, series, category)
+        );
+    }
+
+    private OptionalDouble evaluate(
+        PredictionStrategy strategy,
+        MonthlySeries series,
+        TransactionCategory category
+    ) {
+        // Only the most recent origins are replayed, which bounds the cost on long histories
+        int firstOrigin = Math.max(
+            MIN_TRAINING_MONTHS,
+            series.size() - maxOrigins
+        );
+
+        // Origins are independent, so they are evaluated on the fork-join pool
+        return IntStream
+            .range(firstOrigin, series.size())
+            .parallel()
+            .mapToDouble(origin ->
+                oneStepError(strategy, series, category, origin)
+            )
+            .filter(error -> !Double.isNaN(error))
+            .average()
+            .stream()
+            .map(error -> 1 - error)
+            .findFirst();
+    }
+
+    private static double oneStepError(
+        PredictionStrategy strategy,
+        MonthlySeries series,
+        TransactionCategory category,
+        int origin
+    ) {
+        MonthlySeries training = new MonthlySeries(
+            series.start(),
+            Arrays.copyOf(series.values(), origin)
+        );
+
+        double forecast;
+        try {
+            forecast = strategy
+                .predictForBacktest(training, category)
+                .predictedAmount()
+                .doubleValue();
+        } catch (InsufficientDataException e) {
+            // The model needs a longer history than this origin provides
+            return Double.NaN;
+        }
+
+        double actual = series.get(origin);
+        double scale = Math.abs(actual) + Math.abs(forecast);
+        return scale == 0 ? 0 : Math.abs(actual - forecast) / scale;
+    }
+
+    private record ScoreKey(String modelName, MonthlySeries series) {}
+}
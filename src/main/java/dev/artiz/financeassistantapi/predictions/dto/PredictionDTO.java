@@ -2,11 +2,16 @@ package dev.artiz.financeassistantapi.predictions.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
-public sealed interface PredictionDTO {
+public sealed interface PredictionDTO extends Serializable {
     record Prediction(
         @NotNull(message = "Predicted amount cannot be null")
         BigDecimal predictedAmount,
@@ -20,7 +25,51 @@ public sealed interface PredictionDTO {
 
         LocalDateTime createdAt,
         Double modelFit,
-        Double confidenceLevel
+        Double confidenceLevel,
+        Metadata metadata
+    ) implements PredictionDTO {
+        public Prediction withMetadata(Metadata metadata) {
+            return new Prediction(
+                predictedAmount,
+                category,
+                targetMonth,
+                createdAt,
+                modelFit,
+                confidenceLevel,
+                metadata
+            );
+        }
+
+        public Prediction withConfidenceLevel(Double confidenceLevel) {
+            return new Prediction(
+                predictedAmount,
+                category,
+                targetMonth,
+                createdAt,
+                modelFit,
+                confidenceLevel,
+                metadata
+            );
+        }
+    }
+
+    record Metadata(
+        String selectedModel,
+        List<String> timedOutModels,
+        List<String> failedModels
+    ) implements PredictionDTO {}
+
+    record Forecast(
+        TransactionCategory category,
+        String selectedModel,
+        Double confidenceLevel,
+        LocalDateTime createdAt,
+        List<ForecastPoint> points
+    ) implements PredictionDTO {}
+
+    record ForecastPoint(
+        @JsonFormat(pattern = "yyyy-MM") LocalDateTime targetMonth,
+        BigDecimal predictedAmount
     ) implements PredictionDTO {}
 
     record PredictionRequest(
@@ -28,4 +77,17 @@ public sealed interface PredictionDTO {
             message = "Category cannot be null"
         ) TransactionCategory category
     ) {}
+
+    record ForecastRequest(
+        @NotNull(message = "Category cannot be null")
+        TransactionCategory category,
+
+        @NotNull(message = "Horizon cannot be null")
+        @Min(value = 1, message = "Horizon must be at least 1 month")
+        @Max(value = 24, message = "Horizon cannot exceed 24 months")
+        Integer horizon
+    ) {}
+
+    // An empty or missing set means every category
+    record BatchPredictionRequest(Set<TransactionCategory> categories) {}
 }
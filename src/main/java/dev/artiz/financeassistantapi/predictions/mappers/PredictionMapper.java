@@ -5,6 +5,9 @@ import dev.artiz.financeassistantapi.predictions.model.Prediction;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -19,16 +22,51 @@ public class PredictionMapper {
             .predictedAmount(BigDecimal.valueOf(Math.max(0, predictedValue)))
             .modelFit(modelFit)
             .category(category)
-            .targetDate(LocalDate.now().plusMonths(1).atStartOfDay())
+            .targetDate(
+                LocalDate.now().plusMonths(1).withDayOfMonth(1).atStartOfDay()
+            )
             .build();
 
         return new PredictionDTO.Prediction(
             prediction.getPredictedAmount(),
             prediction.getCategory(),
-            prediction.getCreatedAt(),
             prediction.getTargetDate(),
+            prediction.getCreatedAt(),
             prediction.getModelFit(),
-            prediction.getConfidenceLevel()
+            prediction.getConfidenceLevel(),
+            null
+        );
+    }
+
+    /**
+     * Maps a forecast path to dated points, index 0 being next month.
+     */
+    public static PredictionDTO.Forecast mapToForecast(
+        TransactionCategory category,
+        PredictionDTO.Prediction selected,
+        double[] path
+    ) {
+        LocalDate nextMonth = LocalDate.now().plusMonths(1).withDayOfMonth(1);
+        List<PredictionDTO.ForecastPoint> points = new ArrayList<>(
+            path.length
+        );
+        for (int h = 0; h < path.length; h++) {
+            points.add(
+                new PredictionDTO.ForecastPoint(
+                    nextMonth.plusMonths(h).atStartOfDay(),
+                    BigDecimal.valueOf(Math.max(0, path[h]))
+                )
+            );
+        }
+
+        return new PredictionDTO.Forecast(
+            category,
+            selected.metadata() == null
+                ? null
+                : selected.metadata().selectedModel(),
+            selected.confidenceLevel(),
+            LocalDateTime.now(),
+            points
         );
     }
 }
@@ -0,0 +1,80 @@
+package dev.artiz.financeassistantapi.predictions.model;
+
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Fitted state of an incremental strategy for one user's category. Updated in the
+ * same database transaction as the monthly rollup, so a forecast can be
+ * read off it without refitting the whole history.
+ */
+@Entity
+@Table(
+    name = "model_states",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_model_states_user_category_model",
+        columnNames = { "user_id", "category", "model_name" }
+    )
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ModelState implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionCategory category;
+
+    @Column(name = "model_name", nullable = false)
+    private String modelName;
+
+    // First day of the month at index 0 of the state
+    @Column(name = "start_month", nullable = false)
+    private LocalDate startMonth;
+
+    @Column(nullable = false)
+    private Integer months;
+
+    // Sum of the series the state covers, used to detect missed updates
+    @Column(nullable = false)
+    private BigDecimal total;
+
+    // Months covered at the last full fit; the state is refitted once enough
+    // months have been folded in since, so fitted parameters follow the data
+    @Column(name = "fitted_months")
+    private Integer fittedMonths;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private double[] state;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
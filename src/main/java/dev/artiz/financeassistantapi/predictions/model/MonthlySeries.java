@@ -0,0 +1,93 @@
+package dev.artiz.financeassistantapi.predictions.model;
+
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Dense monthly time series backed by a primitive array. Index 0 is the
+ * {@link #start()} month and every following month is present; months
+ * without transactions are filled with zero.
+ */
+public final class MonthlySeries {
+
+    private final YearMonth start;
+    private final double[] values;
+
+    public MonthlySeries(YearMonth start, double[] values) {
+        this.start = start;
+        this.values = values;
+    }
+
+    /**
+     * Builds a gap-filled series from totals ordered by month ascending.
+     */
+    public static MonthlySeries from(List<MonthlyTotal> totals) {
+        if (totals.isEmpty()) {
+            return new MonthlySeries(YearMonth.now(), new double[0]);
+        }
+
+        YearMonth first = totals.getFirst().yearMonth();
+        YearMonth last = totals.getLast().yearMonth();
+        double[] values = new double[monthsBetween(first, last) + 1];
+
+        for (MonthlyTotal total : totals) {
+            values[monthsBetween(first, total.yearMonth())] += total
+                .total()
+                .doubleValue();
+        }
+
+        return new MonthlySeries(first, values);
+    }
+
+    public YearMonth start() {
+        return start;
+    }
+
+    public YearMonth end() {
+        return start.plusMonths(values.length - 1L);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public double get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the backing array for index-based loops. Callers must not modify it.
+     */
+    public double[] values() {
+        return values;
+    }
+
+    /**
+     * Position of the given month in the series, or -1 when it lies outside.
+     */
+    public int indexOf(YearMonth month) {
+        int index = monthsBetween(start, month);
+        return index >= 0 && index < values.length ? index : -1;
+    }
+
+    // Value semantics, so a series can key caches of anything fitted to it
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MonthlySeries other)) return false;
+        return start.equals(other.start) && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, Arrays.hashCode(values));
+    }
+
+    private static int monthsBetween(YearMonth from, YearMonth to) {
+        return (int) ChronoUnit.MONTHS.between(from, to);
+    }
+}
@@ -12,7 +12,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "predictions")
+@Table(
+    name = "predictions",
+    indexes = {
+        @Index(
+            name = "idx_predictions_user_category_created",
+            columnList = "user_id, category, created_at"
+        ),
+        @Index(
+            name = "idx_predictions_user_category_target_version",
+            columnList = "user_id, category, target_date, data_version"
+        ),
+    }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,10 +34,22 @@ public class Prediction implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "predictions_seq"
+    )
+    @SequenceGenerator(
+        name = "predictions_seq",
+        sequenceName = "predictions_seq",
+        allocationSize = 50
+    )
     private Long id;
 
+    @Column(name = "user_id")
+    private String userId;
+
     @Enumerated(EnumType.STRING)
     private TransactionCategory category;
 
@@ -34,6 +58,9 @@ public class Prediction implements Serializable {
     private Double confidenceLevel;
     private Double modelFit;
 
+    // Category data version the prediction was computed from
+    private Long dataVersion;
+
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -0,0 +1,29 @@
+package dev.artiz.financeassistantapi.predictions.repository;
+
+import dev.artiz.financeassistantapi.predictions.model.ModelState;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ModelStateRepository extends JpaRepository<ModelState, Long> {
+    List<ModelState> findByUserIdAndCategory(
+        String userId,
+        TransactionCategory category
+    );
+
+    // Row locks serialize concurrent writers of the same category
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        "SELECT s FROM ModelState s WHERE s.userId = :userId AND s.category = :category"
+    )
+    List<ModelState> findForUpdate(
+        @Param("userId") String userId,
+        @Param("category") TransactionCategory category
+    );
+}
@@ -1,8 +1,17 @@
 package dev.artiz.financeassistantapi.predictions.repository;
 
 import dev.artiz.financeassistantapi.predictions.model.Prediction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.time.LocalDateTime;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PredictionRepository extends JpaRepository<Prediction, Long> {}
+public interface PredictionRepository extends JpaRepository<Prediction, Long> {
+    boolean existsByUserIdAndCategoryAndTargetDateAndDataVersion(
+        String userId,
+        TransactionCategory category,
+        LocalDateTime targetDate,
+        Long dataVersion
+    );
+}
@@ -0,0 +1,127 @@
+package dev.artiz.financeassistantapi.predictions.strategies;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fits Holt's alpha/beta to a series by minimizing the one-step-ahead sum
+ * of squared errors. A coarse grid over (0, 1) locates the basin and a fine
+ * grid refines around it; both grids are evaluated on the fork-join pool.
+ * Fitted parameters are cached per category and series, so the search runs
+ * once per data change rather than once per request.
+ * {@link #fitOnce} serves series that are never asked for again.
+ */
+@Component
+public class HoltParameterOptimizer {
+
+    private static final double COARSE_STEP = 0.05;
+    private static final double FINE_STEP = 0.005;
+    private static final double MIN_PARAMETER = 0.01;
+    private static final double MAX_PARAMETER = 0.99;
+
+    private final Cache<FitKey, HoltParameters> fitted;
+
+    public HoltParameterOptimizer(
+        @Value("${forecasting.holt-winters.fit-cache-size:1000}") long cacheSize
+    ) {
+        this.fitted = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    public HoltParameters fit(
+        TransactionCategory category,
+        MonthlySeries series
+    ) {
+        return fitted.get(new FitKey(category, series), key ->
+            search(series.values(), true)
+        );
+    }
+
+    /**
+     * Fits without the cache, on the calling thread. For backtest training
+     * windows: caching them would only evict live fits, and the backtest
+     * already spreads its origins over the fork-join pool.
+     */
+    public HoltParameters fitOnce(MonthlySeries series) {
+        return search(series.values(), false);
+    }
+
+    private HoltParameters search(double[] values, boolean parallel) {
+        // Coarse pass: 0.05 .. 0.95 on both axes
+        HoltParameters coarse = bestOnGrid(
+            values,
+            COARSE_STEP,
+            COARSE_STEP,
+            19,
+            COARSE_STEP,
+            parallel
+        );
+
+        // Fine pass: +/- one coarse step around the coarse optimum
+        return bestOnGrid(
+            values,
+            Math.max(MIN_PARAMETER, coarse.alpha() - COARSE_STEP),
+            Math.max(MIN_PARAMETER, coarse.beta() - COARSE_STEP),
+            (int) Math.round(2 * COARSE_STEP / FINE_STEP) + 1,
+            FINE_STEP,
+            parallel
+        );
+    }
+
+    private HoltParameters bestOnGrid(
+        double[] values,
+        double alphaFrom,
+        double betaFrom,
+        int stepsPerAxis,
+        double step,
+        boolean parallel
+    ) {
+        IntStream grid = IntStream.range(0, stepsPerAxis * stepsPerAxis);
+        return (parallel ? grid.parallel() : grid)
+            .mapToObj(i -> {
+                double alpha = clamp(alphaFrom + (i / stepsPerAxis) * step);
+                double beta = clamp(betaFrom + (i % stepsPerAxis) * step);
+                return new Candidate(
+                    new HoltParameters(alpha, beta),
+                    sumSquaredErrors(values, alpha, beta)
+                );
+            })
+            .min(Comparator.comparingDouble(Candidate::sse))
+            .map(Candidate::parameters)
+            .orElseThrow();
+    }
+
+    /**
+     * One-step-ahead SSE of Holt's linear trend recursion, initialized the
+     * same way as {@link HoltWintersStrategy}.
+     */
+    static double sumSquaredErrors(double[] values, double alpha, double beta) {
+        double level = values[0];
+        double trend = values[1] - values[0];
+        double sse = 0;
+
+        for (int i = 1; i < values.length; i++) {
+            double error = values[i] - (level + trend);
+            double lastLevel = level;
+            level = alpha * values[i] + (1 - alpha) * (level + trend);
+            trend = beta * (level - lastLevel) + (1 - beta) * trend;
+            sse += error * error;
+        }
+        return sse;
+    }
+
+    private static double clamp(double value) {
+        return Math.min(MAX_PARAMETER, Math.max(MIN_PARAMETER, value));
+    }
+
+    public record HoltParameters(double alpha, double beta) {}
+
+    private record FitKey(TransactionCategory category, MonthlySeries series) {}
+
+    private record Candidate(HoltParameters parameters, double sse) {}
+}
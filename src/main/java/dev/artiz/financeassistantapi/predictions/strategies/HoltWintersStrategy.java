@@ -1,87 +1,191 @@
 package dev.artiz.financeassistantapi.predictions.strategies;
 
-import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
+import dev.artiz.financeassistantapi.predictions.IncrementalPredictionStrategy;
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
 import dev.artiz.financeassistantapi.predictions.mappers.PredictionMapper;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 import dev.artiz.financeassistantapi.predictions.utils.PredictionValidator;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
-import java.time.YearMonth;
-import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
-public class HoltWintersStrategy implements PredictionStrategy {
-
+@RequiredArgsConstructor
+public class HoltWintersStrategy implements IncrementalPredictionStrategy {
+
+    // State layout: smoothing components after months 1..n-2, the latest
+    // (still open) month kept apart until it closes, and the sums needed
+    // for the fit statistic. Smoothing factors are fixed at fit time.
+    private static final int N = 0;
+    private static final int ALPHA = 1;
+    private static final int BETA = 2;
+    private static final int LEVEL = 3;
+    private static final int TREND = 4;
+    private static final int SSE = 5;
+    private static final int LAST_Y = 6;
+    private static final int SUM_Y = 7;
+    private static final int SUM_Y2 = 8;
+
+    private static final double RELATIVE_EPSILON = 1e-12;
+
+    private final HoltParameterOptimizer optimizer;
+
+    // Used as-is when optimization is disabled
     @Value("${forecasting.holt-winters.alpha:0.3}")
     private double alpha;
 
     @Value("${forecasting.holt-winters.beta:0.2}")
     private double beta;
 
+    @Value("${forecasting.holt-winters.optimize:true}")
+    private boolean optimize;
+
+    @Override
+    public double[] fit(MonthlySeries series, TransactionCategory category) {
+        return fit(series, () -> optimizer.fit(category, series));
+    }
+
+    // Training windows are never fitted again; keep them out of the fit cache
     @Override
-    public PredictionDTO.Prediction predictNextMonth(
-        Map<YearMonth, Double> monthlyData,
+    public PredictionDTO.Prediction predictForBacktest(
+        MonthlySeries training,
         TransactionCategory category
+    ) {
+        return forecast(
+            fit(training, () -> optimizer.fitOnce(training)),
+            category
+        );
+    }
+
+    private double[] fit(
+        MonthlySeries series,
+        Supplier<HoltParameterOptimizer.HoltParameters> optimized
     ) {
         // Validation: Holt-Winters requires at least 3 data points to initialize level and trend components.
-        List<Double> values = PredictionValidator.validateAndExtractValues(
-            monthlyData,
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
             getModelName(),
             3
         );
 
-        int n = values.size();
+        double[] state = new double[9];
+
+        // Smoothing factors fitted to this series (cached until it changes)
+        state[ALPHA] = alpha;
+        state[BETA] = beta;
+        if (optimize) {
+            HoltParameterOptimizer.HoltParameters fitted = optimized.get();
+            state[ALPHA] = fitted.alpha();
+            state[BETA] = fitted.beta();
+        }
 
         // Initializing components:
         // Level (S) starts at the first value.
         // Trend (B) starts as the difference between the second and first month.
-        double level = values.get(0);
-        double trend = values.get(1) - values.get(0);
-
-        // Statistics for calculating the Coefficient of Determination (R-squared)
-        double sumSquaredErrors = 0;
-        double meanY = values
-            .stream()
-            .mapToDouble(v -> v)
-            .average()
-            .orElse(0);
-        double sumTotalSquares = values
-            .stream()
-            .mapToDouble(v -> Math.pow(v - meanY, 2))
-            .sum();
-
-        // Recursive smoothing process (Holt's Linear Trend Algorithm)
-        for (int i = 1; i < n; i++) {
-            double actual = values.get(i);
-
-            // Point prediction for the current step (used to evaluate historical model fit)
-            double forecastForThisStep = level + trend;
-
-            // Updating model components based on forecast error
-            double lastLevel = level;
-            level = alpha * actual + (1 - alpha) * (level + trend);
-            trend = beta * (level - lastLevel) + (1 - beta) * trend;
-
-            // Cumulative Sum of Squared Errors (SSE)
-            sumSquaredErrors += Math.pow(actual - forecastForThisStep, 2);
+        state[LEVEL] = values[0];
+        state[TREND] = values[1] - values[0];
+        state[N] = 1;
+        addToLatestMonth(state, values[0]);
+
+        for (int i = 1; i < values.length; i++) {
+            appendMonth(state);
+            addToLatestMonth(state, values[i]);
+        }
+        return state;
+    }
+
+    @Override
+    public boolean apply(double[] state, int monthIndex, double delta) {
+        if (monthIndex < state[N] - 1) {
+            return false;
         }
+        while (state[N] <= monthIndex) {
+            appendMonth(state);
+        }
+        addToLatestMonth(state, delta);
+        return true;
+    }
+
+    @Override
+    public PredictionDTO.Prediction forecast(
+        double[] state,
+        TransactionCategory category
+    ) {
+        double[] closed = close(state);
 
         // Forecast for the next period (h=1): F(t+h) = Level(t) + h * Trend(t)
         // Math.max ensures domain integrity; financial expenses cannot be negative.
-        double predictedValue = Math.max(0, level + trend);
+        double predictedValue = Math.max(0, closed[LEVEL] + closed[TREND]);
 
         // Model Fit Calculation (R-squared equivalent).
         // A value of 1.0 indicates a perfect fit with historical data.
+        double sumY = state[SUM_Y];
+        double sumTotalSquares = state[SUM_Y2] - (sumY * sumY) / state[N];
         double modelFit =
-            sumTotalSquares == 0
+            sumTotalSquares <= RELATIVE_EPSILON * state[SUM_Y2]
                 ? 0
-                : Math.max(0, 1 - (sumSquaredErrors / sumTotalSquares));
+                : Math.max(0, 1 - (closed[SSE] / sumTotalSquares));
 
         return PredictionMapper.mapToDto(category, predictedValue, modelFit);
     }
 
+    @Override
+    public double[] forecast(double[] state, int horizon) {
+        double[] closed = close(state);
+
+        // F(t+h) = Level(t) + h * Trend(t), for every h in one pass
+        double[] path = new double[horizon];
+        for (int h = 1; h <= horizon; h++) {
+            path[h - 1] = Math.max(0, closed[LEVEL] + h * closed[TREND]);
+        }
+        return path;
+    }
+
+    // Folds the open month into a copy; the stored state stays adjustable
+    private static double[] close(double[] state) {
+        double[] closed = state.clone();
+        smooth(closed, closed[LAST_Y]);
+        return closed;
+    }
+
+    // Closes the latest month; the first month only seeds level and trend
+    private static void appendMonth(double[] state) {
+        if (state[N] > 1) {
+            smooth(state, state[LAST_Y]);
+        }
+        state[LAST_Y] = 0;
+        state[N]++;
+    }
+
+    private static void addToLatestMonth(double[] state, double delta) {
+        double previous = state[LAST_Y];
+        double y = previous + delta;
+        state[SUM_Y] += delta;
+        state[SUM_Y2] += y * y - previous * previous;
+        state[LAST_Y] = y;
+    }
+
+    // One step of Holt's Linear Trend recursion
+    private static void smooth(double[] state, double actual) {
+        double alpha = state[ALPHA];
+        double beta = state[BETA];
+
+        // Point prediction for the current step (used to evaluate historical model fit)
+        double forecastForThisStep = state[LEVEL] + state[TREND];
+
+        // Updating model components based on forecast error
+        double lastLevel = state[LEVEL];
+        state[LEVEL] = alpha * actual + (1 - alpha) * forecastForThisStep;
+        state[TREND] =
+            beta * (state[LEVEL] - lastLevel) + (1 - beta) * state[TREND];
+
+        // Cumulative Sum of Squared Errors (SSE)
+        double error = actual - forecastForThisStep;
+        state[SSE] += error * error;
+    }
+
     @Override
     public String getModelName() {
         return "HOLT_WINTERS";
@@ -3,12 +3,10 @@ package dev.artiz.financeassistantapi.predictions.strategies;
 import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
 import dev.artiz.financeassistantapi.predictions.mappers.PredictionMapper;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 import dev.artiz.financeassistantapi.predictions.utils.PredictionValidator;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
-import java.time.YearMonth;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -18,32 +16,24 @@ public class MovingAverageStrategy implements PredictionStrategy {
 
     @Override
     public PredictionDTO.Prediction predictNextMonth(
-        Map<YearMonth, Double> monthlyData,
+        MonthlySeries series,
         TransactionCategory category
     ) {
-        List<Double> values = PredictionValidator.validateAndExtractValues(
-            monthlyData,
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
             getModelName(),
             WINDOW_SIZE
         );
 
         // We only care about the last N months to capture the current spending trend
-        List<Double> recentValues = values
-            .stream()
-            .skip(Math.max(0, values.size() - WINDOW_SIZE))
-            .collect(Collectors.toList());
-
-        // Calculate the Simple Moving Average (SMA)
-        double avg = recentValues
-            .stream()
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(0.0);
+        int from = values.length - WINDOW_SIZE;
+        double avg = average(values);
 
         // Calculate modelFit based on the Coefficient of Variation (CV)
         // High stability in the window = high model fit
         double standardDeviation = calculateStandardDeviation(
-            recentValues,
+            values,
+            from,
             avg
         );
 
@@ -55,13 +45,45 @@ public class MovingAverageStrategy implements PredictionStrategy {
         return PredictionMapper.mapToDto(category, avg, modelFit);
     }
 
-    private double calculateStandardDeviation(List<Double> values, double avg) {
-        double sumSquaredErrors = values
-            .stream()
-            .mapToDouble(actual -> Math.pow(actual - avg, 2))
-            .sum();
+    @Override
+    public double[] predict(
+        MonthlySeries series,
+        TransactionCategory category,
+        int horizon
+    ) {
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
+            getModelName(),
+            WINDOW_SIZE
+        );
+
+        // A moving average has no trend, so every horizon gets the same level
+        double[] path = new double[horizon];
+        Arrays.fill(path, Math.max(0, average(values)));
+        return path;
+    }
+
+    // Calculate the Simple Moving Average (SMA) of the last N months
+    private static double average(double[] values) {
+        double sum = 0;
+        for (int i = values.length - WINDOW_SIZE; i < values.length; i++) {
+            sum += values[i];
+        }
+        return sum / WINDOW_SIZE;
+    }
+
+    private double calculateStandardDeviation(
+        double[] values,
+        int from,
+        double avg
+    ) {
+        double sumSquaredErrors = 0;
+        for (int i = from; i < values.length; i++) {
+            double deviation = values[i] - avg;
+            sumSquaredErrors += deviation * deviation;
+        }
 
-        return Math.sqrt(sumSquaredErrors / values.size());
+        return Math.sqrt(sumSquaredErrors / (values.length - from));
     }
 
     @Override
@@ -3,11 +3,9 @@ package dev.artiz.financeassistantapi.predictions.strategies;
 import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
 import dev.artiz.financeassistantapi.predictions.mappers.PredictionMapper;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 import dev.artiz.financeassistantapi.predictions.utils.PredictionValidator;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
-import java.time.YearMonth;
-import java.util.List;
-import java.util.Map;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -15,18 +13,18 @@ public class NaiveWithDriftStrategy implements PredictionStrategy {
 
     @Override
     public PredictionDTO.Prediction predictNextMonth(
-        Map<YearMonth, Double> monthlyData,
+        MonthlySeries series,
         TransactionCategory category
     ) {
-        List<Double> values = PredictionValidator.validateAndExtractValues(
-            monthlyData,
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
             getModelName(),
             3
         );
 
-        int n = values.size();
-        double firstValue = values.getFirst();
-        double lastValue = values.get(n - 1);
+        int n = values.length;
+        double firstValue = values[0];
+        double lastValue = values[n - 1];
 
         // Drift calculation: represents the average change per month over the entire period.
         // Mathematical formula: (Y_t - Y_1) / (t - 1)
@@ -46,17 +44,40 @@ public class NaiveWithDriftStrategy implements PredictionStrategy {
         );
     }
 
-    private double calculateDriftStability(List<Double> values, double drift) {
-        int n = values.size();
-        double firstValue = values.getFirst();
+    @Override
+    public double[] predict(
+        MonthlySeries series,
+        TransactionCategory category,
+        int horizon
+    ) {
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
+            getModelName(),
+            3
+        );
+
+        int n = values.length;
+        double drift = (values[n - 1] - values[0]) / (n - 1);
+
+        // Y(t+h) = Y_t + h * drift
+        double[] path = new double[horizon];
+        for (int h = 1; h <= horizon; h++) {
+            path[h - 1] = Math.max(0, values[n - 1] + h * drift);
+        }
+        return path;
+    }
+
+    private double calculateDriftStability(double[] values, double drift) {
+        int n = values.length;
+        double firstValue = values[0];
         double totalError = 0;
         double totalMagnitude = 0;
 
         for (int i = 0; i < n; i++) {
             // Theoretical value at this step if the drift was perfectly constant
             double expectedValue = firstValue + (i * drift);
-            totalError += Math.abs(values.get(i) - expectedValue);
-            totalMagnitude += Math.abs(values.get(i));
+            totalError += Math.abs(values[i] - expectedValue);
+            totalMagnitude += Math.abs(values[i]);
         }
 
         // Return a score between 0 and 1
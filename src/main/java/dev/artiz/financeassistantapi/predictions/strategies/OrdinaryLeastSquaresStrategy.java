@@ -1,54 +1,66 @@
 package dev.artiz.financeassistantapi.predictions.strategies;
 
-import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
+import dev.artiz.financeassistantapi.predictions.IncrementalPredictionStrategy;
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
 import dev.artiz.financeassistantapi.predictions.mappers.PredictionMapper;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 import dev.artiz.financeassistantapi.predictions.utils.PredictionValidator;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
-import java.time.YearMonth;
-import java.util.List;
-import java.util.Map;
 import org.springframework.stereotype.Component;
 
 @Component
-public class OrdinaryLeastSquaresStrategy implements PredictionStrategy {
+public class OrdinaryLeastSquaresStrategy
+    implements IncrementalPredictionStrategy {
+
+    // State layout: running sums of the regression over months 0..n-1,
+    // plus the latest month's value so it can still be adjusted.
+    private static final int N = 0;
+    private static final int SUM_X = 1;
+    private static final int SUM_Y = 2;
+    private static final int SUM_XY = 3;
+    private static final int SUM_X2 = 4;
+    private static final int SUM_Y2 = 5;
+    private static final int LAST_Y = 6;
+
+    private static final double RELATIVE_EPSILON = 1e-12;
 
     @Override
-    public PredictionDTO.Prediction predictNextMonth(
-        Map<YearMonth, Double> monthlyData,
-        TransactionCategory category
-    ) {
-        List<Double> values = PredictionValidator.validateAndExtractValues(
-            monthlyData,
+    public double[] fit(MonthlySeries series, TransactionCategory category) {
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
             getModelName(),
             3
         );
 
-        int n = values.size();
-        double sumX = 0,
-            sumY = 0,
-            sumXY = 0,
-            sumX2 = 0;
-
         // Accumulate statistics for the OLS estimation
-        for (int i = 0; i < n; i++) {
-            double y = values.get(i);
-            sumX += i; // Independent variable (Time index)
-            sumY += y; // Dependent variable (Amount)
-            sumXY += (double) i * y;
-            sumX2 += (double) i * i;
+        double[] state = new double[7];
+        for (double value : values) {
+            appendMonth(state);
+            addToLatestMonth(state, value);
         }
+        return state;
+    }
 
-        // Calculate the slope (beta1) - represents the average change per month
-        // Formula: [n*sum(xy) - sum(x)*sum(y)] / [n*sum(x^2) - (sum(x))^2]
-        double denominator = (n * sumX2 - sumX * sumX);
-        double beta1 = (denominator == 0)
-            ? 0
-            : (n * sumXY - sumX * sumY) / denominator;
+    @Override
+    public boolean apply(double[] state, int monthIndex, double delta) {
+        if (monthIndex < state[N] - 1) {
+            return false;
+        }
+        while (state[N] <= monthIndex) {
+            appendMonth(state);
+        }
+        addToLatestMonth(state, delta);
+        return true;
+    }
 
-        // Calculate the intercept (beta0) - represents the estimated starting value
-        // Formula: y_mean - beta1 * x_mean
-        double beta0 = (sumY - beta1 * sumX) / n;
+    @Override
+    public PredictionDTO.Prediction forecast(
+        double[] state,
+        TransactionCategory category
+    ) {
+        double n = state[N];
+        double beta1 = slope(state);
+        double beta0 = intercept(state, beta1);
 
         // Forecast for the next period (index n)
         // Y_hat = beta0 + beta1 * n
@@ -56,7 +68,7 @@ public class OrdinaryLeastSquaresStrategy implements PredictionStrategy {
 
         // R-Squared (Coefficient of Determination)
         // Quantifies how much of the variance is explained by the linear trend.
-        double rSquare = calculateRSquare(values, beta0, beta1);
+        double rSquare = calculateRSquare(state, beta0, beta1);
 
         return PredictionMapper.mapToDto(
             category,
@@ -65,28 +77,79 @@ public class OrdinaryLeastSquaresStrategy implements PredictionStrategy {
         );
     }
 
+    @Override
+    public double[] forecast(double[] state, int horizon) {
+        double beta1 = slope(state);
+        double beta0 = intercept(state, beta1);
+
+        // Y_hat(n + h - 1) = beta0 + beta1 * (n + h - 1)
+        double[] path = new double[horizon];
+        for (int h = 0; h < horizon; h++) {
+            path[h] = Math.max(0, beta0 + beta1 * (state[N] + h));
+        }
+        return path;
+    }
+
+    // Calculate the slope (beta1) - represents the average change per month
+    // Formula: [n*sum(xy) - sum(x)*sum(y)] / [n*sum(x^2) - (sum(x))^2]
+    private static double slope(double[] state) {
+        double n = state[N];
+        double denominator = (n * state[SUM_X2] - state[SUM_X] * state[SUM_X]);
+        return (denominator == 0)
+            ? 0
+            : (n * state[SUM_XY] - state[SUM_X] * state[SUM_Y]) / denominator;
+    }
+
+    // Calculate the intercept (beta0) - represents the estimated starting value
+    // Formula: y_mean - beta1 * x_mean
+    private static double intercept(double[] state, double beta1) {
+        return (state[SUM_Y] - beta1 * state[SUM_X]) / state[N];
+    }
+
+    // Both sums of squares are expanded in terms of the running sums,
+    // so the fit quality is available without revisiting the series.
     private double calculateRSquare(
-        List<Double> monthlyValues,
+        double[] state,
         double beta0,
         double beta1
     ) {
-        double ssRes = 0; // Residual Sum of Squares (variation not explained by the model)
-        double ssTot = 0; // Total Sum of Squares (total variation in the data)
-        double meanY = monthlyValues
-            .stream()
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(0.0);
-
-        for (int i = 0; i < monthlyValues.size(); i++) {
-            double predicted = beta0 + beta1 * i;
-            double actual = monthlyValues.get(i);
-
-            ssRes += Math.pow(actual - predicted, 2);
-            ssTot += Math.pow(actual - meanY, 2);
-        }
+        double n = state[N];
+        double sumY = state[SUM_Y];
+
+        // Residual Sum of Squares: sum((y - beta0 - beta1*x)^2)
+        double ssRes =
+            state[SUM_Y2] -
+            2 * beta0 * sumY -
+            2 * beta1 * state[SUM_XY] +
+            n * beta0 * beta0 +
+            2 * beta0 * beta1 * state[SUM_X] +
+            beta1 * beta1 * state[SUM_X2];
+
+        // Total Sum of Squares: sum(y^2) - (sum(y))^2 / n
+        double ssTot = state[SUM_Y2] - (sumY * sumY) / n;
+
+        // Treat cancellation noise on a flat series as zero variance
+        return ssTot <= RELATIVE_EPSILON * state[SUM_Y2]
+            ? 0
+            : 1 - (Math.max(0, ssRes) / ssTot);
+    }
+
+    private static void appendMonth(double[] state) {
+        double x = state[N]; // Independent variable (Time index)
+        state[SUM_X] += x;
+        state[SUM_X2] += x * x;
+        state[LAST_Y] = 0;
+        state[N] = x + 1;
+    }
 
-        return ssTot == 0 ? 0 : 1 - (ssRes / ssTot);
+    private static void addToLatestMonth(double[] state, double delta) {
+        double x = state[N] - 1;
+        double previous = state[LAST_Y];
+        double y = previous + delta; // Dependent variable (Amount)
+        state[SUM_Y] += delta;
+        state[SUM_XY] += x * delta;
+        state[SUM_Y2] += y * y - previous * previous;
+        state[LAST_Y] = y;
     }
 
     @Override
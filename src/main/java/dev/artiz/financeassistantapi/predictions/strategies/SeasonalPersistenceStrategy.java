@@ -3,10 +3,10 @@ package dev.artiz.financeassistantapi.predictions.strategies;
 import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
 import dev.artiz.financeassistantapi.predictions.mappers.PredictionMapper;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 import dev.artiz.financeassistantapi.predictions.utils.PredictionValidator;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
 import java.time.YearMonth;
-import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -16,21 +16,24 @@ public class SeasonalPersistenceStrategy implements PredictionStrategy {
 
     @Override
     public PredictionDTO.Prediction predictNextMonth(
-        Map<YearMonth, Double> monthlyData,
+        MonthlySeries series,
         TransactionCategory category
     ) {
-        PredictionValidator.validateAndExtractValues(
-            monthlyData,
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
             getModelName(),
             1
         );
 
-        YearMonth nextMonth = YearMonth.now().plusMonths(1);
+        // Relative to the series end, so truncated histories can be backtested
+        YearMonth nextMonth = series.end().plusMonths(1);
         YearMonth targetMonthLastYear = nextMonth.minusYears(1);
 
-        // Check if the specific seasonal reference point exists
-        if (!monthlyData.containsKey(targetMonthLastYear)) {
-            log.warn(
+        // Check if the specific seasonal reference point exists. Expected for
+        // histories under a year, including most backtest origins.
+        int referenceIndex = series.indexOf(targetMonthLastYear);
+        if (referenceIndex < 0) {
+            log.debug(
                 "Strategy {} failed for category {}: Missing historical data for seasonal reference: {}",
                 getModelName(),
                 category,
@@ -40,12 +43,12 @@ public class SeasonalPersistenceStrategy implements PredictionStrategy {
             return PredictionMapper.mapToDto(category, 0.0, 0.0);
         }
 
-        double predictedValue = monthlyData.get(targetMonthLastYear);
+        double predictedValue = values[referenceIndex];
 
         // Calculate model fit based on overall data variance and depth
         // A seasonal model is more reliable when the historical data isn't chaotic
         double modelFit = calculateSeasonalConfidence(
-            monthlyData,
+            values.length,
             predictedValue
         );
 
@@ -59,16 +62,40 @@ public class SeasonalPersistenceStrategy implements PredictionStrategy {
         return PredictionMapper.mapToDto(category, predictedValue, modelFit);
     }
 
+    @Override
+    public double[] predict(
+        MonthlySeries series,
+        TransactionCategory category,
+        int horizon
+    ) {
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
+            getModelName(),
+            1
+        );
+
+        // Each horizon repeats the most recent observed month of the same
+        // calendar month; months without a reference point forecast zero.
+        double[] path = new double[horizon];
+        for (int h = 1; h <= horizon; h++) {
+            int cycles = (h + 11) / 12;
+            int referenceIndex = values.length - 1 + h - 12 * cycles;
+            path[h - 1] = referenceIndex >= 0
+                ? Math.max(0, values[referenceIndex])
+                : 0;
+        }
+        return path;
+    }
+
     /**
      * Estimates confidence based on data depth.
      * Seasonal patterns require at least 13 months to even exist,
      * and 24+ months to be verified across multiple cycles.
      */
     private double calculateSeasonalConfidence(
-        Map<YearMonth, Double> monthlyData,
+        int n,
         double predictedValue
     ) {
-        int n = monthlyData.size();
         if (n < 12) return 0.0;
 
         // Base confidence starts higher if we have more years of history
@@ -3,11 +3,10 @@ package dev.artiz.financeassistantapi.predictions.strategies;
 import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
 import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
 import dev.artiz.financeassistantapi.predictions.mappers.PredictionMapper;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 import dev.artiz.financeassistantapi.predictions.utils.PredictionValidator;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
-import java.time.YearMonth;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -17,39 +16,26 @@ public class WeightedMovingAverageStrategy implements PredictionStrategy {
 
     @Override
     public PredictionDTO.Prediction predictNextMonth(
-        Map<YearMonth, Double> monthlyData,
+        MonthlySeries series,
         TransactionCategory category
     ) {
-        List<Double> values = PredictionValidator.validateAndExtractValues(
-            monthlyData,
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
             getModelName(),
             3
         );
 
         // We take the last N values to focus on the current financial behavior.
-        List<Double> windowedValues =
-            values.size() > WINDOW_SIZE
-                ? values.subList(values.size() - WINDOW_SIZE, values.size())
-                : values;
-
-        int n = windowedValues.size();
-        double weightedSum = 0;
-        double weightTotal = 0;
-
-        // Calculate WMA: Weights increase linearly (1, 2, 3... n)
-        // Recent data has the highest impact (weight n).
-        for (int i = 0; i < n; i++) {
-            double weight = i + 1;
-            weightedSum += windowedValues.get(i) * weight;
-            weightTotal += weight;
-        }
-
-        double prediction = weightedSum / weightTotal;
+        int from = Math.max(0, values.length - WINDOW_SIZE);
+        int n = values.length - from;
+        double weightTotal = n * (n + 1) / 2.0;
+        double prediction = weightedAverage(values);
 
         // Calculate model fit using weighted variance.
         // It measures how consistently the data follows the weighted mean.
         double modelFit = calculateWeightedFit(
-            windowedValues,
+            values,
+            from,
             prediction,
             weightTotal
         );
@@ -61,18 +47,51 @@ public class WeightedMovingAverageStrategy implements PredictionStrategy {
         );
     }
 
+    @Override
+    public double[] predict(
+        MonthlySeries series,
+        TransactionCategory category,
+        int horizon
+    ) {
+        double[] values = PredictionValidator.validateAndExtractValues(
+            series,
+            getModelName(),
+            3
+        );
+
+        // A weighted average has no trend, so every horizon gets the same level
+        double[] path = new double[horizon];
+        Arrays.fill(path, Math.max(0, weightedAverage(values)));
+        return path;
+    }
+
+    // Calculate WMA: Weights increase linearly (1, 2, 3... n)
+    // Recent data has the highest impact (weight n).
+    private static double weightedAverage(double[] values) {
+        int from = Math.max(0, values.length - WINDOW_SIZE);
+        double weightedSum = 0;
+        double weightTotal = 0;
+        for (int i = from; i < values.length; i++) {
+            double weight = i - from + 1;
+            weightedSum += values[i] * weight;
+            weightTotal += weight;
+        }
+        return weightedSum / weightTotal;
+    }
+
     private double calculateWeightedFit(
-        List<Double> values,
+        double[] values,
+        int from,
         double prediction,
         double weightTotal
     ) {
         if (prediction <= 0) return 0.0;
 
         double weightedSumSquaredErrors = 0;
-        for (int i = 0; i < values.size(); i++) {
-            double weight = i + 1;
-            weightedSumSquaredErrors +=
-                weight * Math.pow(values.get(i) - prediction, 2);
+        for (int i = from; i < values.length; i++) {
+            double weight = i - from + 1;
+            double error = values[i] - prediction;
+            weightedSumSquaredErrors += weight * error * error;
         }
 
         // Weighted Variance = (sum of w_i * (y_i - y_hat)^2) / sum of weights
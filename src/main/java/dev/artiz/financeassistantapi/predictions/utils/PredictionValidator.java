@@ -1,33 +1,26 @@
 package dev.artiz.financeassistantapi.predictions.utils;
 
 import dev.artiz.financeassistantapi.exception.InsufficientDataException;
-import java.time.YearMonth;
-import java.util.List;
-import java.util.Map;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
 
 public class PredictionValidator {
 
-    public static List<Double> validateAndExtractValues(
-        Map<YearMonth, Double> monthlyData,
+    public static double[] validateAndExtractValues(
+        MonthlySeries series,
         String modelName,
         int minRequired
     ) {
-        if (monthlyData == null || monthlyData.size() < minRequired) {
+        if (series == null || series.size() < minRequired) {
             throw new InsufficientDataException(
                 String.format(
                     "Model %s requires at least %d months of data. Current: %d",
                     modelName,
                     minRequired,
-                    (monthlyData == null ? 0 : monthlyData.size())
+                    (series == null ? 0 : series.size())
                 )
             );
         }
 
-        return monthlyData
-            .entrySet()
-            .stream()
-            .sorted(Map.Entry.comparingByKey())
-            .map(Map.Entry::getValue)
-            .toList();
+        return series.values();
     }
 }
@@ -0,0 +1,144 @@
+package dev.artiz.financeassistantapi.transactions;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.artiz.financeassistantapi.config.CacheInvalidations;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monotonic per-user, per-category counters stored in Redis and bumped on
+ * every committed transaction write. Anything derived from a user's
+ * category history can key its cache entries on the current version and
+ * never needs an explicit eviction. Users with recent writes are also
+ * tracked in a set, so background jobs only visit users that changed.
+ * <p>
+ * Versions are read through a short-lived local copy, so a cached read
+ * needs no Redis round trip to build its key. A bump drops the copy on
+ * this node at once and on the others through {@link CacheInvalidations}.
+ */
+@Slf4j
+@Component
+public class CategoryDataVersions {
+
+    private static final String KEY_PREFIX = "data-version:";
+    private static final String CHANGED_USERS_KEY = "data-version:changed-users";
+    private static final String LOCAL_CACHE = "data-versions";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidations invalidations;
+    private final Cache<String, Long> localVersions;
+
+    public CategoryDataVersions(
+        StringRedisTemplate redisTemplate,
+        CacheInvalidations invalidations,
+        // Bounds how long a node that missed an invalidation reads an old version
+        @Value("${app.data-versions.local-ttl:5s}") Duration localTtl,
+        @Value("${app.cache.local.max-entries:2000}") long maxEntries
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.invalidations = invalidations;
+        this.localVersions = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(localTtl)
+            .build();
+        invalidations.register(LOCAL_CACHE, key -> {
+            if (key == null) {
+                localVersions.invalidateAll();
+            } else {
+                localVersions.invalidate(key);
+            }
+        });
+    }
+
+    public long current(String userId, TransactionCategory category) {
+        return localVersions.get(key(userId, category), key ->
+            parse(redisTemplate.opsForValue().get(key))
+        );
+    }
+
+    public Map<TransactionCategory, Long> current(
+        String userId,
+        Collection<TransactionCategory> categories
+    ) {
+        Map<String, Long> cached = localVersions.getAll(
+            categories.stream().map(c -> key(userId, c)).toList(),
+            this::load
+        );
+
+        Map<TransactionCategory, Long> versions = new EnumMap<>(
+            TransactionCategory.class
+        );
+        for (TransactionCategory category : categories) {
+            versions.put(category, cached.get(key(userId, category)));
+        }
+        return versions;
+    }
+
+    public void bump(String userId, TransactionCategory category) {
+        try {
+            String key = key(userId, category);
+            redisTemplate.opsForValue().increment(key);
+            localVersions.invalidate(key);
+            invalidations.publish(LOCAL_CACHE, key);
+            redisTemplate.opsForSet().add(CHANGED_USERS_KEY, userId);
+        } catch (Exception e) {
+            // Cached predictions for the category stay stale until their TTL expires
+            log.warn(
+                "Could not bump data version for user {} category {}: {}",
+                userId,
+                category,
+                e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Users with writes that no background job has acknowledged yet.
+     */
+    public Set<String> changedUsers() {
+        return Objects.requireNonNullElse(
+            redisTemplate.opsForSet().members(CHANGED_USERS_KEY),
+            Set.of()
+        );
+    }
+
+    // A write racing with this call may be dropped from the set; the
+    // periodic full sweep still picks it up.
+    public void acknowledge(String userId) {
+        redisTemplate.opsForSet().remove(CHANGED_USERS_KEY, userId);
+    }
+
+    private Map<String, Long> load(Set<? extends String> keys) {
+        List<String> ordered = List.copyOf(keys);
+        List<String> values = redisTemplate.opsForValue().multiGet(ordered);
+
+        Map<String, Long> versions = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            versions.put(
+                ordered.get(i),
+                parse(values == null ? null : values.get(i))
+            );
+        }
+        return versions;
+    }
+
+    private static String key(String userId, TransactionCategory category) {
+        return KEY_PREFIX + userId + ":" + category.name();
+    }
+
+    private static long parse(String value) {
+        return value == null ? 0 : Long.parseLong(value);
+    }
+}
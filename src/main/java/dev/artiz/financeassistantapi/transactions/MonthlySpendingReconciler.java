@@ -0,0 +1,63 @@
+package dev.artiz.financeassistantapi.transactions;
+
+import dev.artiz.financeassistantapi.predictions.StrategyStateStore;
+import dev.artiz.financeassistantapi.transactions.repository.MonthlySpendingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Rebuilds the monthly_spending rollup from the raw transactions table.
+ * Incremental updates keep it current; this job repairs any drift
+ * (manual SQL fixes, failed writes) and backfills a fresh deployment.
+ * <p>
+ * Every node schedules the job, but an advisory lock lets only one of them
+ * run it at a time, and a table lock holds off incremental updates until the
+ * rebuild commits. The rollup is only read once a rebuild has completed; see
+ * {@link MonthlySpendingRepository#isRebuilt()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MonthlySpendingReconciler {
+
+    private final MonthlySpendingRepository monthlySpendingRepository;
+    private final TransactionOperations transactionOperations;
+    private final StrategyStateStore strategyStateStore;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (!monthlySpendingRepository.isRebuilt()) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Monthly spending backfill skipped: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${transactions.rollup.reconcile-cron:0 0 3 * * *}")
+    public void rebuild() {
+        Integer rows = transactionOperations.execute(status -> {
+            if (!monthlySpendingRepository.tryLockRebuild()) {
+                return null;
+            }
+            monthlySpendingRepository.lockAgainstWriters();
+            monthlySpendingRepository.deleteAllInBatch();
+            // Model states may have drifted along with the rollup
+            strategyStateStore.invalidateAll();
+            int rebuilt = monthlySpendingRepository.rebuildFromTransactions();
+            monthlySpendingRepository.markRebuilt();
+            return rebuilt;
+        });
+        if (rows == null) {
+            log.info("Monthly spending rollup is being rebuilt by another node");
+        } else {
+            log.info("Monthly spending rollup rebuilt with {} rows", rows);
+        }
+    }
+}
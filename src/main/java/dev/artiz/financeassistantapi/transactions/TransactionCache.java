@@ -0,0 +1,123 @@
+package dev.artiz.financeassistantapi.transactions;
+
+import dev.artiz.financeassistantapi.transactions.dto.TransactionDTO;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Materialized transaction pages and summaries in the "transactions" cache.
+ * Keys carry the user's data version: the category's for category-scoped
+ * reads, the sum over all categories for user-wide ones. A write bumps one
+ * category, so it only retires the entries that could contain it; other
+ * users and other categories keep hitting, and retired entries expire
+ * with the cache TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionCache {
+
+    private static final String TRANSACTIONS_CACHE = "transactions";
+
+    private final CacheManager cacheManager;
+    private final CategoryDataVersions categoryDataVersions;
+
+    public Mono<List<TransactionDTO.Get>> page(
+        TransactionQuery query,
+        Mono<List<TransactionDTO.Get>> loader
+    ) {
+        return cached(
+            query.userId(),
+            query.category(),
+            "page:" +
+            query.from() +
+            ":" +
+            query.to() +
+            ":" +
+            query.afterCreatedAt() +
+            ":" +
+            query.afterId() +
+            ":" +
+            query.limit(),
+            loader
+        );
+    }
+
+    public Mono<List<TransactionDTO.Summary>> summary(
+        String userId,
+        Mono<List<TransactionDTO.Summary>> loader
+    ) {
+        return cached(userId, null, "summary", loader);
+    }
+
+    private <T> Mono<T> cached(
+        String userId,
+        TransactionCategory category,
+        String entry,
+        Mono<T> loader
+    ) {
+        return Mono
+            .fromCallable(() -> {
+                String key = key(userId, category, entry);
+                Cache.ValueWrapper hit = transactionsCache().get(key);
+                return new Lookup(key, hit);
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(lookup -> {
+                if (lookup.hit() != null) {
+                    @SuppressWarnings("unchecked")
+                    T value = (T) lookup.hit().get();
+                    return Mono.justOrEmpty(value);
+                }
+                return loader.flatMap(value ->
+                    Mono
+                        .fromRunnable(() ->
+                            transactionsCache().put(lookup.key(), value)
+                        )
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(value)
+                );
+            });
+    }
+
+    private String key(
+        String userId,
+        TransactionCategory category,
+        String entry
+    ) {
+        long version = category == null
+            ? categoryDataVersions
+                .current(userId, EnumSet.allOf(TransactionCategory.class))
+                .values()
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum()
+            : categoryDataVersions.current(userId, category);
+
+        return (
+            userId +
+            ":" +
+            (category == null ? "ALL" : category) +
+            ":" +
+            version +
+            ":" +
+            entry
+        );
+    }
+
+    private Cache transactionsCache() {
+        return Objects.requireNonNull(
+            cacheManager.getCache(TRANSACTIONS_CACHE)
+        );
+    }
+
+    private record Lookup(String key, Cache.ValueWrapper hit) {}
+}
@@ -0,0 +1,158 @@
+package dev.artiz.financeassistantapi.transactions;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.artiz.financeassistantapi.exception.RateLimitExceededException;
+import dev.artiz.financeassistantapi.transactions.dto.LedgerFormat;
+import dev.artiz.financeassistantapi.transactions.dto.TransactionDTO;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionStore;
+import dev.artiz.financeassistantapi.transactions.utils.Csv;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams a user's ledger out as CSV or NDJSON. Rows come off the store's
+ * cursor as the client reads and each is encoded straight into a buffer of
+ * the response's factory, so memory holds a fetch-size batch at most
+ * whatever the size of the ledger.
+ * <p>
+ * Each export holds a database connection until the client has read it all,
+ * so only {@code app.transactions.export.max-concurrent} run at once per
+ * node; further ones are refused with 429 before anything is written.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+        "id",
+        "description",
+        "amount",
+        "category",
+        "createdAt"
+    );
+    private static final int ROW_CAPACITY = 128;
+
+    private final TransactionStore transactionStore;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    @Value("${app.transactions.export.max-concurrent:4}")
+    private int maxConcurrent;
+
+    public Flux<DataBuffer> export(
+        String userId,
+        TransactionDTO.ExportFilter filter,
+        LedgerFormat format,
+        DataBufferFactory bufferFactory
+    ) {
+        TransactionQuery query = new TransactionQuery(
+            userId,
+            filter.category(),
+            filter.from() == null ? null : filter.from().atStartOfDay(),
+            filter.to() == null ? null : filter.to().plusDays(1).atStartOfDay(),
+            null,
+            null,
+            null
+        );
+        Flux<TransactionDTO.ExportRow> rows = Flux
+            .defer(() -> transactionStore.scroll(query))
+            .map(TransactionExportService::toRow);
+
+        Flux<DataBuffer> encoded;
+        if (format == LedgerFormat.CSV) {
+            encoded = Mono
+                .fromSupplier(() -> csvLine(CSV_COLUMNS, bufferFactory))
+                .concatWith(rows.map(row -> csvRow(row, bufferFactory)));
+        } else {
+            ObjectWriter writer = objectMapper
+                .writerFor(TransactionDTO.ExportRow.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            encoded = rows.map(row -> jsonLine(writer, row, bufferFactory));
+        }
+        // Buffers encoded but never written when the client goes away
+        Flux<DataBuffer> export = encoded.doOnDiscard(
+            DataBuffer.class,
+            DataBufferUtils::release
+        );
+        return Flux.defer(() -> {
+            if (running.incrementAndGet() > maxConcurrent) {
+                running.decrementAndGet();
+                return Flux.error(
+                    new RateLimitExceededException(
+                        "Too many exports in progress, try again later"
+                    )
+                );
+            }
+            return export.doFinally(signal -> running.decrementAndGet());
+        });
+    }
+
+    private static DataBuffer csvRow(
+        TransactionDTO.ExportRow row,
+        DataBufferFactory bufferFactory
+    ) {
+        return csvLine(
+            Arrays.asList(
+                row.id(),
+                row.description(),
+                row.amount() == null ? null : row.amount().toPlainString(),
+                row.category(),
+                row.createdAt()
+            ),
+            bufferFactory
+        );
+    }
+
+    private static DataBuffer csvLine(
+        List<?> fields,
+        DataBufferFactory bufferFactory
+    ) {
+        return bufferFactory
+            .allocateBuffer(ROW_CAPACITY)
+            .write(Csv.formatLine(fields) + "\r\n", StandardCharsets.UTF_8);
+    }
+
+    private static DataBuffer jsonLine(
+        ObjectWriter writer,
+        TransactionDTO.ExportRow row,
+        DataBufferFactory bufferFactory
+    ) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(ROW_CAPACITY);
+        try (OutputStream out = buffer.asOutputStream()) {
+            writer.writeValue(out, row);
+            out.write('\n');
+            return buffer;
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static TransactionDTO.ExportRow toRow(Transaction transaction) {
+        return new TransactionDTO.ExportRow(
+            transaction.getId(),
+            transaction.getDescription(),
+            transaction.getAmount(),
+            transaction.getCategory(),
+            transaction.getCreatedAt()
+        );
+    }
+}
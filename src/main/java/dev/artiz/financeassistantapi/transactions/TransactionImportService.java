@@ -0,0 +1,295 @@
+package dev.artiz.financeassistantapi.transactions;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.artiz.financeassistantapi.transactions.dto.ImportDTO;
+import dev.artiz.financeassistantapi.transactions.dto.LedgerFormat;
+import dev.artiz.financeassistantapi.transactions.dto.TransactionDTO;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionStore;
+import dev.artiz.financeassistantapi.transactions.utils.Csv;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+/**
+ * Loads a streamed NDJSON or CSV body into a user's ledger. Lines are parsed
+ * and validated one by one, and the valid ones are written in batches of
+ * {@code app.transactions.import.batch-size}, each a single database
+ * transaction. After every batch the stream reports the rejected lines and
+ * the running totals; a batch the database refuses is reported and skipped,
+ * and the import carries on.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionImportService {
+
+    private final TransactionStore transactionStore;
+    private final CategoryDataVersions categoryDataVersions;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.transactions.import.batch-size:1000}")
+    private int batchSize;
+
+    public Flux<ImportDTO> importTransactions(
+        String userId,
+        Flux<String> lines,
+        LedgerFormat format
+    ) {
+        return Flux.defer(() -> {
+            AtomicLong imported = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+
+            return parse(lines, format, userId)
+                .buffer(batchSize)
+                .concatMap(batch ->
+                    importBatch(userId, batch, imported, rejected)
+                )
+                .concatWith(
+                    Mono.fromSupplier(() ->
+                        new ImportDTO.Progress(
+                            imported.get(),
+                            rejected.get(),
+                            true
+                        )
+                    )
+                );
+        });
+    }
+
+    private Flux<ImportDTO> importBatch(
+        String userId,
+        List<ParsedLine> batch,
+        AtomicLong imported,
+        AtomicLong rejected
+    ) {
+        List<ImportDTO> events = new ArrayList<>();
+        List<Transaction> valid = new ArrayList<>();
+        for (ParsedLine line : batch) {
+            if (line.error() != null) {
+                events.add(new ImportDTO.LineError(line.line(), line.error()));
+            } else {
+                valid.add(line.transaction());
+            }
+        }
+        rejected.addAndGet(events.size());
+
+        Mono<Integer> written = valid.isEmpty()
+            ? Mono.just(0)
+            : transactionStore
+                .saveAll(valid)
+                .flatMap(count -> bumpVersions(userId, valid).thenReturn(count))
+                .onErrorResume(e -> {
+                    long first = batch.getFirst().line();
+                    long last = batch.getLast().line();
+                    log.warn(
+                        "Import batch of lines {}-{} failed: {}",
+                        first,
+                        last,
+                        e.getMessage()
+                    );
+                    events.add(
+                        new ImportDTO.LineError(
+                            first,
+                            "Lines " + first + "-" + last + " were not imported"
+                        )
+                    );
+                    rejected.addAndGet(valid.size());
+                    return Mono.just(0);
+                });
+
+        return written.flatMapMany(count ->
+            Flux
+                .fromIterable(events)
+                .concatWith(
+                    Mono.fromSupplier(() ->
+                        new ImportDTO.Progress(
+                            imported.addAndGet(count),
+                            rejected.get(),
+                            false
+                        )
+                    )
+                )
+        );
+    }
+
+    private Mono<Void> bumpVersions(String userId, List<Transaction> batch) {
+        Set<TransactionCategory> categories = batch
+            .stream()
+            .map(Transaction::getCategory)
+            .collect(Collectors.toSet());
+
+        return Mono
+            .fromRunnable(() ->
+                categories.forEach(category ->
+                    categoryDataVersions.bump(userId, category)
+                )
+            )
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
+    private Flux<ParsedLine> parse(
+        Flux<String> lines,
+        LedgerFormat format,
+        String userId
+    ) {
+        Flux<Tuple2<Long, String>> numbered = lines
+            .index()
+            .filter(line -> !line.getT2().isBlank());
+
+        if (format == LedgerFormat.NDJSON) {
+            return numbered.map(line ->
+                parseLine(line.getT1() + 1, userId, () ->
+                    objectMapper.readValue(
+                        line.getT2(),
+                        TransactionDTO.Create.class
+                    )
+                )
+            );
+        }
+
+        // The first CSV line names the columns, in any order
+        return numbered.switchOnFirst((first, rest) -> {
+            if (!first.hasValue()) {
+                return rest.thenMany(Flux.<ParsedLine>empty());
+            }
+            List<String> header = Csv.parseLine(first.get().getT2())
+                .stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+
+            return rest
+                .skip(1)
+                .map(line ->
+                    parseLine(line.getT1() + 1, userId, () ->
+                        fromCsv(header, Csv.parseLine(line.getT2()))
+                    )
+                );
+        });
+    }
+
+    private ParsedLine parseLine(
+        long line,
+        String userId,
+        Callable<TransactionDTO.Create> reader
+    ) {
+        TransactionDTO.Create request;
+        try {
+            request = reader.call();
+        } catch (JsonProcessingException e) {
+            return ParsedLine.rejected(line, e.getOriginalMessage());
+        } catch (Exception e) {
+            return ParsedLine.rejected(line, e.getMessage());
+        }
+
+        Set<ConstraintViolation<TransactionDTO.Create>> violations =
+            validator.validate(request);
+        if (!violations.isEmpty()) {
+            return ParsedLine.rejected(
+                line,
+                violations
+                    .stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "))
+            );
+        }
+        if (request.amount() == null) {
+            return ParsedLine.rejected(line, "Amount cannot be null");
+        }
+
+        return new ParsedLine(
+            line,
+            Transaction.builder()
+                .description(request.description())
+                .amount(request.amount())
+                .category(request.category())
+                .createdAt(
+                    request.createdAt() == null
+                        ? LocalDateTime.now()
+                        : request.createdAt()
+                )
+                .userId(userId)
+                .build(),
+            null
+        );
+    }
+
+    private static TransactionDTO.Create fromCsv(
+        List<String> header,
+        List<String> fields
+    ) {
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException(
+                "Expected " + header.size() + " fields but got " + fields.size()
+            );
+        }
+
+        String description = null;
+        BigDecimal amount = null;
+        TransactionCategory category = null;
+        LocalDateTime createdAt = null;
+        for (int i = 0; i < header.size(); i++) {
+            String value = fields.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header.get(i)) {
+                case "description" -> description = value;
+                case "amount" -> amount = new BigDecimal(value);
+                case "category" -> category = parseCategory(value);
+                case "createdat", "created_at" -> createdAt = parseDateTime(
+                    value
+                );
+                default -> {}
+            }
+        }
+        return new TransactionDTO.Create(description, amount, category, createdAt);
+    }
+
+    private static TransactionCategory parseCategory(String value) {
+        try {
+            return TransactionCategory.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown category: " + value);
+        }
+    }
+
+    // Plain dates are taken as the start of the day
+    private static LocalDateTime parseDateTime(String value) {
+        return value.contains("T")
+            ? LocalDateTime.parse(value)
+            : LocalDate.parse(value).atStartOfDay();
+    }
+
+    private record ParsedLine(
+        long line,
+        Transaction transaction,
+        String error
+    ) {
+        static ParsedLine rejected(long line, String error) {
+            return new ParsedLine(line, null, error);
+        }
+    }
+}
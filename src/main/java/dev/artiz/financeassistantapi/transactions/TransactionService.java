@@ -1,11 +1,16 @@
 package dev.artiz.financeassistantapi.transactions;
 
 import dev.artiz.financeassistantapi.transactions.dto.TransactionDTO;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
 import dev.artiz.financeassistantapi.transactions.model.Transaction;
-import dev.artiz.financeassistantapi.transactions.repository.TransactionRepository;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionStore;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,55 +20,100 @@ import reactor.core.scheduler.Schedulers;
 @RequiredArgsConstructor
 public class TransactionService {
 
-    private final TransactionRepository transactionRepository;
+    private final TransactionStore transactionStore;
+    private final CategoryDataVersions categoryDataVersions;
+    private final TransactionCache transactionCache;
 
-    @CacheEvict(value = "transactions", allEntries = true)
     public Mono<TransactionDTO.Get> create(
         TransactionDTO.Create request,
         String userId
     ) {
         return Mono
-            .fromCallable(() -> {
-                Transaction transaction = Transaction.builder()
+            .fromSupplier(() ->
+                Transaction.builder()
                     .description(request.description())
                     .amount(request.amount())
                     .category(request.category())
                     .userId(userId)
-                    .build();
+                    .build()
+            )
+            // The rollup row and model states are updated in the same database
+            // transaction, so they never disagree with the ledger after a commit.
+            .flatMap(transactionStore::save)
+            .flatMap(saved ->
+                bumpVersion(saved).thenReturn(mapToResponse(saved))
+            );
+    }
 
-                Transaction saved = transactionRepository.save(transaction);
+    /**
+     * Streams the user's transactions, newest first. Pages with a limit are
+     * served from the version-keyed cache; unbounded listings are never
+     * materialized and stream straight from the store.
+     */
+    public Flux<TransactionDTO.Get> getTransactions(
+        String userId,
+        TransactionDTO.Filter filter
+    ) {
+        TransactionQuery query = new TransactionQuery(
+            userId,
+            filter.category(),
+            filter.from() == null ? null : filter.from().atStartOfDay(),
+            filter.to() == null ? null : filter.to().plusDays(1).atStartOfDay(),
+            filter.afterCreatedAt(),
+            filter.afterId(),
+            filter.limit()
+        );
+        Flux<TransactionDTO.Get> rows = Flux
+            .defer(() -> transactionStore.find(query))
+            .map(this::mapToResponse);
 
-                return mapToResponse(saved);
-            })
-            .subscribeOn(Schedulers.boundedElastic());
+        if (query.limit() == null) {
+            return rows;
+        }
+        return transactionCache
+            .page(query, rows.collectList())
+            .flatMapMany(Flux::fromIterable);
     }
 
-    @Cacheable(value = "transactions")
-    public Flux<TransactionDTO.Get> getTransactions() {
-        return Mono
-            .fromCallable(() ->
-                transactionRepository
-                    .findAll()
-                    .stream()
-                    .map(this::mapToResponse)
-                    .toList()
+    /**
+     * Total spending and transaction count per category, read off the monthly rollup.
+     */
+    public Flux<TransactionDTO.Summary> getSummary(String userId) {
+        return transactionCache
+            .summary(
+                userId,
+                Mono
+                    .defer(() ->
+                        transactionStore.findMonthlyTotals(
+                            userId,
+                            EnumSet.allOf(TransactionCategory.class)
+                        )
+                    )
+                    .map(TransactionService::summarize)
             )
-            .subscribeOn(Schedulers.boundedElastic())
             .flatMapMany(Flux::fromIterable);
     }
 
-    @CacheEvict(value = "transactions", allEntries = true)
     public Mono<Void> delete(Long id) {
-        return Mono
-            .fromRunnable(() -> {
-                if (!transactionRepository.existsById(id)) {
-                    throw new RuntimeException(
-                        "Transaction not found with id: " + id
-                    );
-                }
+        return transactionStore
+            .delete(id)
+            .switchIfEmpty(
+                Mono.error(() ->
+                    new RuntimeException("Transaction not found with id: " + id)
+                )
+            )
+            .flatMap(this::bumpVersion);
+    }
 
-                transactionRepository.deleteById(id);
-            })
+    // Retires the cached predictions, pages and summaries covering the category
+    private Mono<Void> bumpVersion(Transaction transaction) {
+        return Mono
+            .fromRunnable(() ->
+                categoryDataVersions.bump(
+                    transaction.getUserId(),
+                    transaction.getCategory()
+                )
+            )
             .subscribeOn(Schedulers.boundedElastic())
             .then();
     }
@@ -76,4 +126,28 @@ public class TransactionService {
             t.getCreatedAt()
         );
     }
+
+    private static List<TransactionDTO.Summary> summarize(
+        List<MonthlyTotal> totals
+    ) {
+        Map<TransactionCategory, TransactionDTO.Summary> byCategory =
+            new EnumMap<>(TransactionCategory.class);
+        for (MonthlyTotal month : totals) {
+            byCategory.merge(
+                month.category(),
+                new TransactionDTO.Summary(
+                    month.category(),
+                    month.total(),
+                    month.transactionCount()
+                ),
+                (a, b) ->
+                    new TransactionDTO.Summary(
+                        a.category(),
+                        a.total().add(b.total()),
+                        a.transactionCount() + b.transactionCount()
+                    )
+            );
+        }
+        return List.copyOf(byCategory.values());
+    }
 }
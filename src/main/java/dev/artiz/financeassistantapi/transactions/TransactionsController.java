@@ -1,9 +1,17 @@
 package dev.artiz.financeassistantapi.transactions;
 
+import dev.artiz.financeassistantapi.transactions.dto.ImportDTO;
+import dev.artiz.financeassistantapi.transactions.dto.LedgerFormat;
 import dev.artiz.financeassistantapi.transactions.dto.TransactionDTO;
 import jakarta.validation.Valid;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +24,8 @@ import reactor.core.publisher.Mono;
 public class TransactionsController {
 
     private final TransactionService transactionService;
+    private final TransactionImportService transactionImportService;
+    private final TransactionExportService transactionExportService;
 
     @PostMapping
     public Mono<ResponseEntity<TransactionDTO.Get>> createTransaction(
@@ -29,9 +39,72 @@ public class TransactionsController {
             .map(saved -> ResponseEntity.status(201).body(saved));
     }
 
-    @GetMapping
-    public Flux<TransactionDTO.Get> getTransactions() {
-        return transactionService.getTransactions();
+    @GetMapping(
+        produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE,
+        }
+    )
+    public Flux<TransactionDTO.Get> getTransactions(
+        @Valid TransactionDTO.Filter filter,
+        @AuthenticationPrincipal Jwt jwt
+    ) {
+        return transactionService.getTransactions(jwt.getSubject(), filter);
+    }
+
+    @PostMapping(
+        value = "/import",
+        consumes = {
+            MediaType.APPLICATION_NDJSON_VALUE, LedgerFormat.TEXT_CSV_VALUE,
+        },
+        produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public Flux<ImportDTO> importTransactions(
+        @RequestBody Flux<String> lines,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @AuthenticationPrincipal Jwt jwt
+    ) {
+        return transactionImportService.importTransactions(
+            jwt.getSubject(),
+            lines,
+            LedgerFormat.of(contentType)
+        );
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> exportTransactions(
+        @Valid TransactionDTO.ExportFilter filter,
+        @RequestParam(defaultValue = "CSV") LedgerFormat format,
+        @AuthenticationPrincipal Jwt jwt,
+        ServerHttpResponse response
+    ) {
+        String filename =
+            "transactions." + format.name().toLowerCase(Locale.ROOT);
+
+        return ResponseEntity.ok()
+            .contentType(format.mediaType())
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment()
+                    .filename(filename)
+                    .build()
+                    .toString()
+            )
+            .body(
+                transactionExportService.export(
+                    jwt.getSubject(),
+                    filter,
+                    format,
+                    response.bufferFactory()
+                )
+            );
+    }
+
+    @GetMapping("/summary")
+    public Flux<TransactionDTO.Summary> getSummary(
+        @AuthenticationPrincipal Jwt jwt
+    ) {
+        return transactionService.getSummary(jwt.getSubject());
     }
 
     @DeleteMapping("/{id}")
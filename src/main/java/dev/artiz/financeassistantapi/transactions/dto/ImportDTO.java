@@ -0,0 +1,22 @@
+package dev.artiz.financeassistantapi.transactions.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.io.Serializable;
+
+/**
+ * Events streamed back by a bulk import, tagged with a {@code type} field.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes(
+    {
+        @JsonSubTypes.Type(value = ImportDTO.LineError.class, name = "error"),
+        @JsonSubTypes.Type(value = ImportDTO.Progress.class, name = "progress"),
+    }
+)
+public sealed interface ImportDTO extends Serializable {
+    record LineError(long line, String message) implements ImportDTO {}
+
+    record Progress(long imported, long rejected, boolean done)
+        implements ImportDTO {}
+}
@@ -0,0 +1,27 @@
+package dev.artiz.financeassistantapi.transactions.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented formats for bulk import and export.
+ */
+public enum LedgerFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(MediaType.parseMediaType(LedgerFormat.TEXT_CSV_VALUE));
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    LedgerFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static LedgerFormat of(MediaType contentType) {
+        return CSV.mediaType.isCompatibleWith(contentType) ? CSV : NDJSON;
+    }
+}
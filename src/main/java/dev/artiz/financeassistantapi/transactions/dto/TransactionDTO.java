@@ -1,12 +1,17 @@
 package dev.artiz.financeassistantapi.transactions.dto;
 
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import org.springframework.format.annotation.DateTimeFormat;
 
 public sealed interface TransactionDTO extends Serializable {
     record Create(
@@ -18,10 +23,55 @@ public sealed interface TransactionDTO extends Serializable {
         LocalDateTime createdAt
     ) implements TransactionDTO {}
 
+    /**
+     * Listing filters. {@code from} and {@code to} are inclusive dates; pass the
+     * last item's {@code createdAt} and {@code id} as the cursor to fetch the
+     * next page. Without a limit the whole match is streamed.
+     */
+    record Filter(
+        TransactionCategory category,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime afterCreatedAt,
+        Long afterId,
+        @Min(value = 1, message = "Limit must be at least 1")
+        @Max(value = 1000, message = "Limit must be at most 1000")
+        Integer limit
+    ) implements TransactionDTO {
+        @AssertTrue(message = "afterCreatedAt and afterId must be given together")
+        public boolean isCursorComplete() {
+            return (afterCreatedAt == null) == (afterId == null);
+        }
+    }
+
+    /**
+     * Export filters; {@code from} and {@code to} are inclusive dates.
+     */
+    record ExportFilter(
+        TransactionCategory category,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) implements TransactionDTO {}
+
+    record ExportRow(
+        Long id,
+        String description,
+        BigDecimal amount,
+        TransactionCategory category,
+        LocalDateTime createdAt
+    ) implements TransactionDTO {}
+
     record Get(
         Long id,
         String description,
         BigDecimal amount,
         LocalDateTime createdAt
     ) implements TransactionDTO {}
+
+    record Summary(
+        TransactionCategory category,
+        BigDecimal total,
+        Long transactionCount
+    ) implements TransactionDTO {}
 }
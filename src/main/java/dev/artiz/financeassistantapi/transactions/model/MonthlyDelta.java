@@ -0,0 +1,67 @@
+package dev.artiz.financeassistantapi.transactions.model;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Net change to one user's category in one month. Writers apply it to the
+ * rollup row and the stored model states in a single step, whether it
+ * stands for one transaction or a whole import batch.
+ */
+public record MonthlyDelta(
+    String userId,
+    TransactionCategory category,
+    YearMonth month,
+    BigDecimal amount,
+    long count
+) {
+    public static MonthlyDelta of(Transaction transaction) {
+        return new MonthlyDelta(
+            transaction.getUserId(),
+            transaction.getCategory(),
+            YearMonth.from(transaction.getCreatedAt()),
+            transaction.getAmount(),
+            1
+        );
+    }
+
+    /**
+     * Sums transactions per user, category and month, oldest month first, so
+     * model states see the months in order.
+     */
+    public static List<MonthlyDelta> of(Collection<Transaction> transactions) {
+        Map<List<Object>, MonthlyDelta> deltas = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            MonthlyDelta delta = of(transaction);
+            deltas.merge(
+                List.of(delta.userId(), delta.category(), delta.month()),
+                delta,
+                MonthlyDelta::plus
+            );
+        }
+        return deltas
+            .values()
+            .stream()
+            .sorted(Comparator.comparing(MonthlyDelta::month))
+            .toList();
+    }
+
+    public MonthlyDelta negate() {
+        return new MonthlyDelta(userId, category, month, amount.negate(), -count);
+    }
+
+    private MonthlyDelta plus(MonthlyDelta other) {
+        return new MonthlyDelta(
+            userId,
+            category,
+            month,
+            amount.add(other.amount()),
+            count + other.count()
+        );
+    }
+}
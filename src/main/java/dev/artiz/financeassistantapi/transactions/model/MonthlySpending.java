@@ -0,0 +1,58 @@
+package dev.artiz.financeassistantapi.transactions.model;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per user, category and month rollup of transactions. Maintained together
+ * with every write so readers scan months instead of raw transactions.
+ */
+@Entity
+@Table(
+    name = "monthly_spending",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_monthly_spending_category_user_period",
+        columnNames = { "category", "user_id", "period" }
+    ),
+    indexes = @Index(
+        name = "idx_monthly_spending_user_category_period",
+        columnList = "user_id, category, period"
+    )
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlySpending implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionCategory category;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    // First day of the month the rollup covers
+    @Column(nullable = false)
+    private LocalDate period;
+
+    @Column(nullable = false)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private Long transactionCount;
+}
@@ -0,0 +1,20 @@
+package dev.artiz.financeassistantapi.transactions.model;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Lightweight projection of a month of spending in a single category,
+ * aggregated by the database instead of hydrating every transaction.
+ */
+public record MonthlyTotal(
+    TransactionCategory category,
+    Integer year,
+    Integer month,
+    BigDecimal total,
+    Long transactionCount
+) {
+    public YearMonth yearMonth() {
+        return YearMonth.of(year, month);
+    }
+}
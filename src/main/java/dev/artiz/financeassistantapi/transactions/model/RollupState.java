@@ -0,0 +1,26 @@
+package dev.artiz.financeassistantapi.transactions.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marks a rollup table as complete. The row is written in the same database
+ * transaction as a full rebuild, so until it exists readers go to the
+ * ledger instead of trusting rows written by incremental updates alone.
+ */
+@Entity
+@Table(name = "rollup_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupState {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime rebuiltAt;
+}
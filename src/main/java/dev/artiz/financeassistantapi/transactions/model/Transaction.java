@@ -11,7 +11,21 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "transactions")
+@Table(
+    name = "transactions",
+    // Access paths for user-scoped reads: one user's category, in time order,
+    // and the keyset used to page through the user's whole ledger
+    indexes = {
+        @Index(
+            name = "idx_transactions_user_category_created",
+            columnList = "user_id, category, created_at"
+        ),
+        @Index(
+            name = "idx_transactions_user_created_id",
+            columnList = "user_id, created_at, id"
+        ),
+    }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,31 @@
+package dev.artiz.financeassistantapi.transactions.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's transactions, newest first, optionally narrowed to a category and
+ * a {@code [from, to)} range. Listing resumes strictly after the keyset
+ * cursor ({@code afterCreatedAt}, {@code afterId}) and stops after
+ * {@code limit} rows; a null limit streams every match.
+ */
+public record TransactionQuery(
+    String userId,
+    TransactionCategory category,
+    LocalDateTime from,
+    LocalDateTime to,
+    LocalDateTime afterCreatedAt,
+    Long afterId,
+    Integer limit
+) {
+    public TransactionQuery after(Transaction last, Integer remaining) {
+        return new TransactionQuery(
+            userId,
+            category,
+            from,
+            to,
+            last.getCreatedAt(),
+            last.getId(),
+            remaining
+        );
+    }
+}
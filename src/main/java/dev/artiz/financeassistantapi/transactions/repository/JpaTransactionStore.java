@@ -0,0 +1,354 @@
+package dev.artiz.financeassistantapi.transactions.repository;
+
+import dev.artiz.financeassistantapi.predictions.StrategyStateStore;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyDelta;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * {@link TransactionStore} on the blocking JPA repositories, offloaded to the
+ * jpaScheduler. Listings are read as a series of keyset queries rather than
+ * a server-side cursor, which would pin a connection and a transaction for
+ * as long as the client takes to read; only exports {@link #scroll scroll}.
+ */
+@Component
+@Profile("!r2dbc")
+@RequiredArgsConstructor
+public class JpaTransactionStore implements TransactionStore {
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO transactions (description, amount, category, created_at, user_id) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?)";
+    private static final int ROWS_PER_INSERT = MAX_BIND_PARAMETERS / 5;
+
+    private final TransactionRepository transactionRepository;
+    private final MonthlySpendingRepository monthlySpendingRepository;
+    private final TransactionOperations transactionOperations;
+    private final JdbcTemplate jdbcTemplate;
+    private final StrategyStateStore strategyStateStore;
+    private final Scheduler jpaScheduler;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Rows per keyset query when streaming a listing; each chunk is a short
+    // query of its own, so no connection is held while the client reads.
+    @Value("${app.transactions.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${app.transactions.export.statement-timeout:10m}")
+    private Duration exportStatementTimeout;
+
+    // How long an export may wait on a client that has stopped reading
+    @Value("${app.transactions.export.idle-timeout:1m}")
+    private Duration exportIdleTimeout;
+
+    private volatile boolean rollupRebuilt;
+
+    @Override
+    public Mono<Transaction> save(Transaction transaction) {
+        return Mono
+            .fromCallable(() ->
+                transactionOperations.execute(status -> {
+                    Transaction persisted = transactionRepository.save(
+                        transaction
+                    );
+                    monthlySpendingRepository.add(persisted);
+                    strategyStateStore.apply(
+                        persisted.getUserId(),
+                        persisted.getCategory(),
+                        YearMonth.from(persisted.getCreatedAt()),
+                        persisted.getAmount()
+                    );
+                    return persisted;
+                })
+            )
+            .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<Integer> saveAll(List<Transaction> transactions) {
+        return Mono
+            .fromCallable(() ->
+                transactionOperations.execute(status -> {
+                    int inserted = 0;
+                    for (
+                        int from = 0;
+                        from < transactions.size();
+                        from += ROWS_PER_INSERT
+                    ) {
+                        inserted += insert(
+                            transactions.subList(
+                                from,
+                                Math.min(
+                                    from + ROWS_PER_INSERT,
+                                    transactions.size()
+                                )
+                            )
+                        );
+                    }
+
+                    for (MonthlyDelta delta : MonthlyDelta.of(transactions)) {
+                        monthlySpendingRepository.applyDelta(
+                            delta.category().name(),
+                            delta.userId(),
+                            delta.month().atDay(1),
+                            delta.amount(),
+                            delta.count()
+                        );
+                        strategyStateStore.apply(
+                            delta.userId(),
+                            delta.category(),
+                            delta.month(),
+                            delta.amount()
+                        );
+                    }
+                    return inserted;
+                })
+            )
+            .subscribeOn(jpaScheduler);
+    }
+
+    // Plain JDBC: Hibernate cannot batch inserts with IDENTITY ids, and one
+    // multi-row statement beats a JDBC batch anyway.
+    private int insert(List<Transaction> rows) {
+        String sql =
+            INSERT_PREFIX +
+            String.join(", ", Collections.nCopies(rows.size(), ROW));
+        return jdbcTemplate.update(
+            sql,
+            rows
+                .stream()
+                .flatMap(t ->
+                    Stream.of(
+                        t.getDescription(),
+                        t.getAmount(),
+                        t.getCategory().name(),
+                        t.getCreatedAt(),
+                        t.getUserId()
+                    )
+                )
+                .toArray()
+        );
+    }
+
+    @Override
+    public Mono<Transaction> delete(Long id) {
+        return Mono
+            .fromCallable(() ->
+                transactionOperations.execute(status ->
+                    transactionRepository
+                        .findById(id)
+                        .map(transaction -> {
+                            transactionRepository.delete(transaction);
+                            monthlySpendingRepository.subtract(transaction);
+                            strategyStateStore.apply(
+                                transaction.getUserId(),
+                                transaction.getCategory(),
+                                YearMonth.from(transaction.getCreatedAt()),
+                                transaction.getAmount().negate()
+                            );
+                            return transaction;
+                        })
+                        .orElse(null)
+                )
+            )
+            .subscribeOn(jpaScheduler);
+    }
+
+    @Override
+    public Flux<Transaction> find(TransactionQuery query) {
+        return Flux.defer(() -> {
+            int size = query.limit() == null
+                ? fetchSize
+                : Math.min(query.limit(), fetchSize);
+
+            return Mono
+                .fromCallable(() ->
+                    transactionRepository.findBy(
+                        TransactionRepository.matching(query),
+                        q ->
+                            q
+                                .sortBy(TransactionRepository.KEYSET_ORDER)
+                                .limit(size)
+                                .all()
+                    )
+                )
+                .subscribeOn(jpaScheduler)
+                .flatMapMany(chunk -> {
+                    Flux<Transaction> rows = Flux.fromIterable(chunk);
+                    if (
+                        chunk.size() < size ||
+                        Objects.equals(query.limit(), size)
+                    ) {
+                        return rows;
+                    }
+
+                    Integer remaining = query.limit() == null
+                        ? null
+                        : query.limit() - size;
+                    // The next chunk is only read once this one has been consumed
+                    return rows.concatWith(
+                        find(query.after(chunk.getLast(), remaining))
+                    );
+                });
+        });
+    }
+
+    /**
+     * Reads through a stateless session, so no entities pile up in a
+     * persistence context, inside a transaction that is rolled back at the
+     * end: PostgreSQL only honours the fetch size inside one. Each batch of demand is served on the
+     * jpaScheduler; no thread is held between batches, only the connection.
+     * The transaction carries a statement timeout and an idle timeout, so a
+     * client that stops reading cannot hold the connection indefinitely, and
+     * a cancel closes the cursor on the jpaScheduler rather than on the
+     * thread it arrived on.
+     */
+    @Override
+    public Flux<Transaction> scroll(TransactionQuery query) {
+        return Flux
+            .<Transaction, Cursor>generate(
+                () ->
+                    Cursor.open(
+                        entityManagerFactory,
+                        query,
+                        fetchSize,
+                        exportStatementTimeout,
+                        exportIdleTimeout
+                    ),
+                (cursor, sink) -> {
+                    if (cursor.rows().next()) {
+                        sink.next(cursor.rows().get());
+                    } else {
+                        sink.complete();
+                    }
+                    return cursor;
+                },
+                Cursor::close
+            )
+            .subscribeOn(jpaScheduler)
+            .cancelOn(jpaScheduler);
+    }
+
+    @Override
+    public Mono<List<MonthlyTotal>> findMonthlyTotals(
+        String userId,
+        Collection<TransactionCategory> categories
+    ) {
+        return Mono
+            .fromCallable(() -> {
+                // The rollup is incomplete until the first rebuild commits;
+                // once it has, it stays complete.
+                if (!rollupRebuilt) {
+                    rollupRebuilt = monthlySpendingRepository.isRebuilt();
+                }
+                return rollupRebuilt
+                    ? monthlySpendingRepository.findMonthlyTotals(
+                        userId,
+                        categories
+                    )
+                    : transactionRepository.findMonthlyTotals(
+                        userId,
+                        categories
+                    );
+            })
+            .subscribeOn(jpaScheduler);
+    }
+
+    private record Cursor(
+        StatelessSession session,
+        ScrollableResults<Transaction> rows
+    ) {
+        static Cursor open(
+            EntityManagerFactory entityManagerFactory,
+            TransactionQuery query,
+            int fetchSize,
+            Duration statementTimeout,
+            Duration idleTimeout
+        ) {
+            StatelessSession session = entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .openStatelessSession();
+            try {
+                session.beginTransaction();
+                // Both end with the transaction; the idle one ends the session
+                session
+                    .createNativeMutationQuery(
+                        "SET LOCAL statement_timeout = " +
+                        statementTimeout.toMillis()
+                    )
+                    .executeUpdate();
+                session
+                    .createNativeMutationQuery(
+                        "SET LOCAL idle_in_transaction_session_timeout = " +
+                        idleTimeout.toMillis()
+                    )
+                    .executeUpdate();
+
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<Transaction> criteria = cb.createQuery(
+                    Transaction.class
+                );
+                Root<Transaction> root = criteria.from(Transaction.class);
+                criteria
+                    .where(
+                        TransactionRepository.matching(query).toPredicate(
+                            root,
+                            criteria,
+                            cb
+                        )
+                    )
+                    .orderBy(
+                        cb.desc(root.get("createdAt")),
+                        cb.desc(root.get("id"))
+                    );
+
+                Query<Transaction> select = session
+                    .createQuery(criteria)
+                    .setFetchSize(fetchSize);
+                if (query.limit() != null) {
+                    select.setMaxResults(query.limit());
+                }
+                return new Cursor(session, select.scroll(ScrollMode.FORWARD_ONLY));
+            } catch (RuntimeException e) {
+                session.close();
+                throw e;
+            }
+        }
+
+        void close() {
+            try {
+                rows.close();
+                session.getTransaction().rollback();
+            } finally {
+                session.close();
+            }
+        }
+    }
+}
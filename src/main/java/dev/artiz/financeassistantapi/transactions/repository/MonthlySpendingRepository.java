@@ -0,0 +1,141 @@
+package dev.artiz.financeassistantapi.transactions.repository;
+
+import dev.artiz.financeassistantapi.transactions.model.MonthlySpending;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MonthlySpendingRepository
+    extends JpaRepository<MonthlySpending, Long>
+{
+    @Query(
+        """
+        SELECT new dev.artiz.financeassistantapi.transactions.model.MonthlyTotal(
+            m.category,
+            year(m.period),
+            month(m.period),
+            m.total,
+            m.transactionCount
+        )
+        FROM MonthlySpending m
+        WHERE m.userId = :userId
+            AND m.category IN :categories
+            AND m.transactionCount > 0
+        ORDER BY m.category, m.period
+        """
+    )
+    List<MonthlyTotal> findMonthlyTotals(
+        @Param("userId") String userId,
+        @Param("categories") Collection<TransactionCategory> categories
+    );
+
+    @Query("SELECT DISTINCT m.userId FROM MonthlySpending m WHERE m.userId IS NOT NULL")
+    List<String> findUserIds();
+
+    // Atomic upsert, so concurrent writers in the same month never lose an update
+    @Modifying
+    @Query(
+        value = """
+        INSERT INTO monthly_spending (category, user_id, period, total, transaction_count)
+        VALUES (:category, :userId, :period, :amount, :count)
+        ON CONFLICT (category, user_id, period) DO UPDATE
+        SET total = monthly_spending.total + EXCLUDED.total,
+            transaction_count = monthly_spending.transaction_count + EXCLUDED.transaction_count
+        """,
+        nativeQuery = true
+    )
+    void applyDelta(
+        @Param("category") String category,
+        @Param("userId") String userId,
+        @Param("period") LocalDate period,
+        @Param("amount") BigDecimal amount,
+        @Param("count") long count
+    );
+
+    default void add(Transaction transaction) {
+        applyDelta(
+            transaction.getCategory().name(),
+            transaction.getUserId(),
+            periodOf(transaction),
+            transaction.getAmount(),
+            1
+        );
+    }
+
+    default void subtract(Transaction transaction) {
+        applyDelta(
+            transaction.getCategory().name(),
+            transaction.getUserId(),
+            periodOf(transaction),
+            transaction.getAmount().negate(),
+            -1
+        );
+    }
+
+    // Replaces rather than adds to a row that survived the delete
+    @Modifying
+    @Query(
+        value = """
+        INSERT INTO monthly_spending (category, user_id, period, total, transaction_count)
+        SELECT category, user_id, CAST(date_trunc('month', created_at) AS date), SUM(amount), COUNT(*)
+        FROM transactions
+        GROUP BY category, user_id, CAST(date_trunc('month', created_at) AS date)
+        ON CONFLICT (category, user_id, period) DO UPDATE
+        SET total = EXCLUDED.total,
+            transaction_count = EXCLUDED.transaction_count
+        """,
+        nativeQuery = true
+    )
+    int rebuildFromTransactions();
+
+    // Held until the surrounding transaction ends, so only one node rebuilds
+    @Query(
+        value = "SELECT pg_try_advisory_xact_lock(hashtext('monthly_spending'))",
+        nativeQuery = true
+    )
+    boolean tryLockRebuild();
+
+    // Blocks applyDelta (ROW EXCLUSIVE) until the rebuild commits; reads go on
+    @Modifying
+    @Query(
+        value = "LOCK TABLE monthly_spending IN EXCLUSIVE MODE",
+        nativeQuery = true
+    )
+    void lockAgainstWriters();
+
+    @Modifying
+    @Query(
+        value = """
+        INSERT INTO rollup_state (name, rebuilt_at)
+        VALUES ('monthly_spending', CURRENT_TIMESTAMP)
+        ON CONFLICT (name) DO UPDATE SET rebuilt_at = EXCLUDED.rebuilt_at
+        """,
+        nativeQuery = true
+    )
+    void markRebuilt();
+
+    /**
+     * Whether a full rebuild has committed. Until then the rollup may hold
+     * only the incremental updates made since deployment, and is not read.
+     */
+    @Query(
+        value = "SELECT COUNT(*) > 0 FROM rollup_state WHERE name = 'monthly_spending'",
+        nativeQuery = true
+    )
+    boolean isRebuilt();
+
+    private static LocalDate periodOf(Transaction transaction) {
+        return YearMonth.from(transaction.getCreatedAt()).atDay(1);
+    }
+}
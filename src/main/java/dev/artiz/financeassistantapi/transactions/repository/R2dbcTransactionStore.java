@@ -0,0 +1,380 @@
+package dev.artiz.financeassistantapi.transactions.repository;
+
+import dev.artiz.financeassistantapi.predictions.StrategyStateStore;
+import dev.artiz.financeassistantapi.predictions.model.ModelState;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyDelta;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import io.r2dbc.spi.Readable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link TransactionStore} on R2DBC. Queries run on the driver's event loop,
+ * and result rows are streamed with backpressure instead of being loaded
+ * into a list on a blocking thread.
+ */
+@Component
+@Profile("r2dbc")
+@RequiredArgsConstructor
+public class R2dbcTransactionStore implements TransactionStore {
+
+    private static final String TRANSACTION_COLUMNS =
+        "id, description, amount, category, created_at, user_id";
+    private static final int ROWS_PER_INSERT = MAX_BIND_PARAMETERS / 5;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator r2dbcTransactionalOperator;
+    private final StrategyStateStore strategyStateStore;
+
+    @Value("${app.transactions.fetch-size:500}")
+    private int fetchSize;
+
+    private volatile boolean rollupRebuilt;
+
+    @Override
+    public Mono<Transaction> save(Transaction transaction) {
+        return Mono
+            .defer(() -> {
+                // Set by @PrePersist on the JPA path
+                transaction.setCreatedAt(LocalDateTime.now());
+
+                return databaseClient
+                    .sql(
+                        """
+                        INSERT INTO transactions (description, amount, category, created_at, user_id)
+                        VALUES (:description, :amount, :category, :createdAt, :userId)
+                        """
+                    )
+                    .filter(statement -> statement.returnGeneratedValues("id"))
+                    .bind("description", transaction.getDescription())
+                    .bind("amount", transaction.getAmount())
+                    .bind("category", transaction.getCategory().name())
+                    .bind("createdAt", transaction.getCreatedAt())
+                    .bind("userId", transaction.getUserId())
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+            })
+            .flatMap(id -> {
+                transaction.setId(id);
+                return applyDelta(MonthlyDelta.of(transaction)).thenReturn(
+                    transaction
+                );
+            })
+            .as(r2dbcTransactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Integer> saveAll(List<Transaction> transactions) {
+        return Flux
+            .fromIterable(transactions)
+            .buffer(ROWS_PER_INSERT)
+            .concatMap(this::insert)
+            .reduce(0L, Long::sum)
+            .flatMap(inserted ->
+                Flux
+                    .fromIterable(MonthlyDelta.of(transactions))
+                    .concatMap(this::applyDelta)
+                    .then(Mono.just(inserted.intValue()))
+            )
+            .as(r2dbcTransactionalOperator::transactional);
+    }
+
+    private Mono<Long> insert(List<Transaction> rows) {
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO transactions (description, amount, category, created_at, user_id) VALUES "
+        );
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Transaction t = rows.get(i);
+            sql
+                .append(i == 0 ? "" : ", ")
+                .append("(:description")
+                .append(i)
+                .append(", :amount")
+                .append(i)
+                .append(", :category")
+                .append(i)
+                .append(", :createdAt")
+                .append(i)
+                .append(", :userId")
+                .append(i)
+                .append(")");
+            params.put("description" + i, t.getDescription());
+            params.put("amount" + i, t.getAmount());
+            params.put("category" + i, t.getCategory().name());
+            params.put("createdAt" + i, t.getCreatedAt());
+            params.put("userId" + i, t.getUserId());
+        }
+
+        return databaseClient
+            .sql(sql.toString())
+            .bindValues(params)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    @Override
+    public Mono<Transaction> delete(Long id) {
+        return databaseClient
+            .sql(
+                "SELECT " +
+                TRANSACTION_COLUMNS +
+                " FROM transactions WHERE id = :id FOR UPDATE"
+            )
+            .bind("id", id)
+            .map(R2dbcTransactionStore::toTransaction)
+            .one()
+            .flatMap(transaction ->
+                databaseClient
+                    .sql("DELETE FROM transactions WHERE id = :id")
+                    .bind("id", id)
+                    .fetch()
+                    .rowsUpdated()
+                    .then(applyDelta(MonthlyDelta.of(transaction).negate()))
+                    .thenReturn(transaction)
+            )
+            .as(r2dbcTransactionalOperator::transactional);
+    }
+
+    @Override
+    public Flux<Transaction> find(TransactionQuery query) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT " +
+            TRANSACTION_COLUMNS +
+            " FROM transactions WHERE user_id = :userId"
+        );
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", query.userId());
+
+        if (query.category() != null) {
+            sql.append(" AND category = :category");
+            params.put("category", query.category().name());
+        }
+        if (query.from() != null) {
+            sql.append(" AND created_at >= :from");
+            params.put("from", query.from());
+        }
+        if (query.to() != null) {
+            sql.append(" AND created_at < :to");
+            params.put("to", query.to());
+        }
+        if (query.afterCreatedAt() != null) {
+            sql.append(
+                " AND (created_at < :afterCreatedAt" +
+                " OR (created_at = :afterCreatedAt AND id < :afterId))"
+            );
+            params.put("afterCreatedAt", query.afterCreatedAt());
+            params.put("afterId", query.afterId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC");
+        if (query.limit() != null) {
+            sql.append(" LIMIT :limit");
+            params.put("limit", query.limit());
+        }
+
+        return databaseClient
+            .sql(sql.toString())
+            .bindValues(params)
+            // Rows come from a portal in batches, as downstream demand allows
+            .filter(statement -> statement.fetchSize(fetchSize))
+            .map(R2dbcTransactionStore::toTransaction)
+            .all();
+    }
+
+    // find already reads through a portal with a fixed fetch size
+    @Override
+    public Flux<Transaction> scroll(TransactionQuery query) {
+        return find(query);
+    }
+
+    @Override
+    public Mono<List<MonthlyTotal>> findMonthlyTotals(
+        String userId,
+        Collection<TransactionCategory> categories
+    ) {
+        List<String> names = categories.stream().map(Enum::name).toList();
+
+        Mono<List<MonthlyTotal>> fromLedger = databaseClient
+            .sql(
+                """
+                SELECT category, CAST(date_trunc('month', created_at) AS date) AS period,
+                    SUM(amount) AS total, COUNT(*) AS transaction_count
+                FROM transactions
+                WHERE user_id = :userId AND category IN (:categories)
+                GROUP BY category, CAST(date_trunc('month', created_at) AS date)
+                ORDER BY category, period
+                """
+            )
+            .bind("userId", userId)
+            .bind("categories", names)
+            .map(R2dbcTransactionStore::toMonthlyTotal)
+            .all()
+            .collectList();
+
+        Mono<List<MonthlyTotal>> fromRollup = databaseClient
+            .sql(
+                """
+                SELECT category, period, total, transaction_count
+                FROM monthly_spending
+                WHERE user_id = :userId
+                    AND category IN (:categories)
+                    AND transaction_count > 0
+                ORDER BY category, period
+                """
+            )
+            .bind("userId", userId)
+            .bind("categories", names)
+            .map(R2dbcTransactionStore::toMonthlyTotal)
+            .all()
+            .collectList();
+
+        // The rollup is incomplete until the first rebuild commits; once it
+        // has, it stays complete.
+        Mono<Boolean> rebuilt = rollupRebuilt
+            ? Mono.just(true)
+            : databaseClient
+                .sql("SELECT name FROM rollup_state WHERE name = 'monthly_spending'")
+                .map(row -> true)
+                .one()
+                .defaultIfEmpty(false)
+                .doOnNext(complete -> rollupRebuilt = complete);
+
+        return rebuilt.flatMap(complete -> complete ? fromRollup : fromLedger);
+    }
+
+    /**
+     * Applies a delta to its rollup row and to the stored model states. The
+     * rollup is the same atomic upsert as the JPA store's, so concurrent
+     * writers in the same month never lose an update.
+     */
+    private Mono<Void> applyDelta(MonthlyDelta delta) {
+        YearMonth month = delta.month();
+        BigDecimal amount = delta.amount();
+        String category = delta.category().name();
+        String userId = delta.userId();
+
+        Mono<Long> updateRollup = databaseClient
+            .sql(
+                """
+                INSERT INTO monthly_spending (category, user_id, period, total, transaction_count)
+                VALUES (:category, :userId, :period, :amount, :count)
+                ON CONFLICT (category, user_id, period) DO UPDATE
+                SET total = monthly_spending.total + EXCLUDED.total,
+                    transaction_count = monthly_spending.transaction_count + EXCLUDED.transaction_count
+                """
+            )
+            .bind("category", category)
+            .bind("userId", userId)
+            .bind("period", month.atDay(1))
+            .bind("amount", amount)
+            .bind("count", delta.count())
+            .fetch()
+            .rowsUpdated();
+
+        Flux<Long> updateModelStates = databaseClient
+            .sql(
+                """
+                SELECT id, model_name, start_month, months, total, state
+                FROM model_states
+                WHERE user_id = :userId AND category = :category
+                FOR UPDATE
+                """
+            )
+            .bind("userId", userId)
+            .bind("category", category)
+            .map(R2dbcTransactionStore::toModelState)
+            .all()
+            .concatMap(stored ->
+                strategyStateStore.advance(stored, month, amount)
+                    ? saveModelState(stored)
+                    : deleteModelState(stored)
+            );
+
+        return updateRollup.thenMany(updateModelStates).then();
+    }
+
+    private Mono<Long> saveModelState(ModelState stored) {
+        return databaseClient
+            .sql(
+                """
+                UPDATE model_states
+                SET state = :state, months = :months, total = :total, updated_at = :updatedAt
+                WHERE id = :id
+                """
+            )
+            .bind(
+                "state",
+                Arrays.stream(stored.getState()).boxed().toArray(Double[]::new)
+            )
+            .bind("months", stored.getMonths())
+            .bind("total", stored.getTotal())
+            .bind("updatedAt", LocalDateTime.now())
+            .bind("id", stored.getId())
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private Mono<Long> deleteModelState(ModelState stored) {
+        return databaseClient
+            .sql("DELETE FROM model_states WHERE id = :id")
+            .bind("id", stored.getId())
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private static Transaction toTransaction(Readable row) {
+        return Transaction.builder()
+            .id(row.get("id", Long.class))
+            .description(row.get("description", String.class))
+            .amount(row.get("amount", BigDecimal.class))
+            .category(
+                TransactionCategory.valueOf(row.get("category", String.class))
+            )
+            .createdAt(row.get("created_at", LocalDateTime.class))
+            .userId(row.get("user_id", String.class))
+            .build();
+    }
+
+    private static MonthlyTotal toMonthlyTotal(Readable row) {
+        LocalDate period = row.get("period", LocalDate.class);
+        return new MonthlyTotal(
+            TransactionCategory.valueOf(row.get("category", String.class)),
+            period.getYear(),
+            period.getMonthValue(),
+            row.get("total", BigDecimal.class),
+            row.get("transaction_count", Long.class)
+        );
+    }
+
+    private static ModelState toModelState(Readable row) {
+        Double[] state = row.get("state", Double[].class);
+        return ModelState.builder()
+            .id(row.get("id", Long.class))
+            .modelName(row.get("model_name", String.class))
+            .startMonth(row.get("start_month", LocalDate.class))
+            .months(row.get("months", Integer.class))
+            .total(row.get("total", BigDecimal.class))
+            .state(
+                Arrays.stream(state).mapToDouble(Double::doubleValue).toArray()
+            )
+            .build();
+    }
+}
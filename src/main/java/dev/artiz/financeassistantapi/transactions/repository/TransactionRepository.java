@@ -1,16 +1,87 @@
 package dev.artiz.financeassistantapi.transactions.repository;
 
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
 import dev.artiz.financeassistantapi.transactions.model.Transaction;
 import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface TransactionRepository
-    extends JpaRepository<Transaction, Long>
+    extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>
 {
-    List<Transaction> findByCategoryOrderByCreatedAtAsc(
-        TransactionCategory category
+    // Listing order; (created_at, id) is unique, so it doubles as the keyset
+    Sort KEYSET_ORDER = Sort.by(
+        Sort.Order.desc("createdAt"),
+        Sort.Order.desc("id")
     );
+
+    // Monthly buckets are computed by the database, so a prediction reads
+    // one row per month instead of every transaction in the user's category.
+    @Query(
+        """
+        SELECT new dev.artiz.financeassistantapi.transactions.model.MonthlyTotal(
+            t.category,
+            year(t.createdAt),
+            month(t.createdAt),
+            sum(t.amount),
+            count(t)
+        )
+        FROM Transaction t
+        WHERE t.userId = :userId AND t.category IN :categories
+        GROUP BY t.category, year(t.createdAt), month(t.createdAt)
+        ORDER BY t.category, year(t.createdAt), month(t.createdAt)
+        """
+    )
+    List<MonthlyTotal> findMonthlyTotals(
+        @Param("userId") String userId,
+        @Param("categories") Collection<TransactionCategory> categories
+    );
+
+    /**
+     * Predicates of a {@link TransactionQuery}, without its limit. Only the filters
+     * that are set end up in the SQL, so the planner always sees a plain
+     * range on the user's index.
+     */
+    static Specification<Transaction> matching(TransactionQuery query) {
+        return (root, criteriaQuery, cb) -> {
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), query.userId()));
+
+            if (query.category() != null) {
+                predicates.add(cb.equal(root.get("category"), query.category()));
+            }
+            if (query.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(createdAt, query.from()));
+            }
+            if (query.to() != null) {
+                predicates.add(cb.lessThan(createdAt, query.to()));
+            }
+            if (query.afterCreatedAt() != null) {
+                predicates.add(
+                    cb.or(
+                        cb.lessThan(createdAt, query.afterCreatedAt()),
+                        cb.and(
+                            cb.equal(createdAt, query.afterCreatedAt()),
+                            cb.lessThan(root.get("id"), query.afterId())
+                        )
+                    )
+                );
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
 }
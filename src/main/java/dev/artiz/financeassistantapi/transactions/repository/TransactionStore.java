@@ -0,0 +1,65 @@
+package dev.artiz.financeassistantapi.transactions.repository;
+
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive persistence for the ledger. Writes update the transaction, the
+ * monthly rollup and the stored model states in one database transaction.
+ * <p>
+ * {@link JpaTransactionStore} is the default; the {@code r2dbc} profile
+ * switches to {@link R2dbcTransactionStore}, which needs no blocking threads.
+ */
+public interface TransactionStore {
+    /**
+     * Bind parameters PostgreSQL accepts in one statement; multi-row inserts
+     * are split so that none exceeds it.
+     */
+    int MAX_BIND_PARAMETERS = 32767;
+
+    Mono<Transaction> save(Transaction transaction);
+
+    /**
+     * Inserts a batch with multi-row INSERT statements, at most
+     * {@link #MAX_BIND_PARAMETERS} parameters each, and applies it to the
+     * rollup once per category and month, all in one database transaction.
+     * Emits the number of rows inserted; generated ids are not read back.
+     */
+    Mono<Integer> saveAll(List<Transaction> transactions);
+
+    /**
+     * Deletes a transaction and emits it, or completes empty when it does not exist.
+     */
+    Mono<Transaction> delete(Long id);
+
+    /**
+     * Streams the matching transactions in keyset order. Rows are read from the
+     * database as they are requested, so memory stays bounded however large
+     * the result is.
+     */
+    Flux<Transaction> find(TransactionQuery query);
+
+    /**
+     * Streams the matching transactions in keyset order from a single
+     * server-side cursor, {@code app.transactions.fetch-size} rows per round
+     * trip. Meant for exports: the cursor holds a connection until the stream
+     * completes or is cancelled.
+     */
+    Flux<Transaction> scroll(TransactionQuery query);
+
+    /**
+     * Monthly totals of the user's categories, ordered by category and month.
+     * Read from the rollup, or aggregated from the ledger until the rollup
+     * has been rebuilt once.
+     */
+    Mono<List<MonthlyTotal>> findMonthlyTotals(
+        String userId,
+        Collection<TransactionCategory> categories
+    );
+}
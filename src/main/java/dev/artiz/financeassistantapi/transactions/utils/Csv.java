@@ -0,0 +1,66 @@
+package dev.artiz.financeassistantapi.transactions.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * RFC 4180 fields for line-oriented CSV: quoted fields may contain commas and
+ * doubled quotes, but not line breaks.
+ */
+public class Csv {
+
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Joins fields into one line without the line break, quoting those that
+     * contain a comma, a quote or a line break. Null fields are written empty.
+     */
+    public static String formatLine(List<?> fields) {
+        return fields
+            .stream()
+            .map(field -> field == null ? "" : quote(field.toString()))
+            .collect(Collectors.joining(","));
+    }
+
+    private static String quote(String field) {
+        boolean plain = field
+            .chars()
+            .noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r');
+        if (plain) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,92 @@
+package dev.artiz.financeassistantapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.artiz.financeassistantapi.config.AdaptiveConcurrencyFilter;
+import dev.artiz.financeassistantapi.config.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class AdaptiveConcurrencyFilterTest {
+
+    private static final String KEY = "predictions:user:user-1";
+
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldShedCallsOverTheLimitAndRefundTheirToken() {
+        ObjectProvider<MeterRegistry> meters = mock(ObjectProvider.class);
+        when(meters.getIfAvailable(any())).thenReturn(meterRegistry);
+        when(rateLimiter.refund(KEY, 1)).thenReturn(Mono.empty());
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(
+            rateLimiter,
+            meters,
+            1,
+            1,
+            1,
+            Duration.ofSeconds(2)
+        );
+
+        Sinks.Empty<Void> slowCall = Sinks.empty();
+        WebFilterChain slow = exchange -> slowCall.asMono();
+        Disposable first = filter
+            .filter(exchange(), slow)
+            .contextWrite(
+                RateLimiter.bind(new RateLimiter.Caller(KEY, "/api/v1"))
+            )
+            .subscribe();
+
+        MockServerWebExchange second = exchange();
+        filter
+            .filter(second, exchange -> Mono.empty())
+            .contextWrite(
+                RateLimiter.bind(new RateLimiter.Caller(KEY, "/api/v1"))
+            )
+            .block();
+
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(
+            HttpStatus.SERVICE_UNAVAILABLE
+        );
+        assertThat(
+            second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)
+        ).isEqualTo("2");
+        verify(rateLimiter).refund(KEY, 1);
+        assertThat(
+            meterRegistry.get("predictions.concurrency.inflight.current").gauge().value()
+        ).isEqualTo(1);
+
+        // The slot frees up once the slow call is done
+        slowCall.tryEmitEmpty();
+        first.dispose();
+        MockServerWebExchange third = exchange();
+        filter.filter(third, exchange -> Mono.empty()).block();
+
+        assertThat(third.getResponse().getStatusCode()).isNull();
+        assertThat(
+            meterRegistry.get("predictions.concurrency.limit").gauge().value()
+        ).isEqualTo(1);
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(
+            MockServerHttpRequest.post("/api/v1/predictions/next-month")
+        );
+    }
+}
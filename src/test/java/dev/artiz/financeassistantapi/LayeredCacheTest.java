@@ -0,0 +1,111 @@
+package dev.artiz.financeassistantapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.artiz.financeassistantapi.config.CacheInvalidations;
+import dev.artiz.financeassistantapi.config.LayeredCache;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+class LayeredCacheTest {
+
+    private final CacheInvalidations invalidations = mock(
+        CacheInvalidations.class
+    );
+    private final Cache remote = spy(new ConcurrentMapCache("predictions"));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldServeRepeatedReadsLocallyUntilAnotherNodeInvalidates() {
+        LayeredCache cache = new LayeredCache(
+            Caffeine.newBuilder().buildAsync(),
+            remote,
+            invalidations
+        );
+        ArgumentCaptor<Consumer<String>> invalidator = ArgumentCaptor.forClass(
+            Consumer.class
+        );
+        verify(invalidations).register(eq("predictions"), invalidator.capture());
+
+        // Written by another node
+        remote.put("user-1:FOOD:3", "first");
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.get("user-1:FOOD:3", String.class)).isEqualTo(
+                "first"
+            );
+        }
+        verify(remote, times(1)).get("user-1:FOOD:3");
+
+        remote.put("user-1:FOOD:3", "second");
+        invalidator.getValue().accept("user-1:FOOD:3");
+
+        assertThat(cache.get("user-1:FOOD:3", String.class)).isEqualTo(
+            "second"
+        );
+        verify(remote, times(2)).get("user-1:FOOD:3");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotKeepALoadThatAnInvalidationRacedPast() {
+        LayeredCache cache = new LayeredCache(
+            Caffeine.newBuilder().buildAsync(),
+            remote,
+            invalidations
+        );
+        ArgumentCaptor<Consumer<String>> invalidator = ArgumentCaptor.forClass(
+            Consumer.class
+        );
+        verify(invalidations).register(eq("predictions"), invalidator.capture());
+
+        remote.put("user-1:FOOD:3", "first");
+        // Another node replaces the entry while this one is reading Redis
+        doAnswer(invocation -> {
+            Object hit = invocation.callRealMethod();
+            remote.put("user-1:FOOD:3", "second");
+            invalidator.getValue().accept("user-1:FOOD:3");
+            return hit;
+        })
+            .doCallRealMethod()
+            .when(remote)
+            .get("user-1:FOOD:3");
+
+        assertThat(cache.get("user-1:FOOD:3", String.class)).isEqualTo(
+            "first"
+        );
+        assertThat(cache.get("user-1:FOOD:3", String.class)).isEqualTo(
+            "second"
+        );
+    }
+
+    @Test
+    void shouldAnnounceLocalWrites() {
+        LayeredCache cache = new LayeredCache(
+            Caffeine.newBuilder().buildAsync(),
+            remote,
+            invalidations
+        );
+
+        cache.put("user-1:latest:FOOD", "prediction");
+        cache.evict("user-1:latest:FOOD");
+        cache.clear();
+
+        verify(invalidations, times(2)).publish(
+            "predictions",
+            "user-1:latest:FOOD"
+        );
+        verify(invalidations).publish(eq("predictions"), isNull());
+        assertThat(cache.get("user-1:latest:FOOD")).isNull();
+    }
+}
@@ -0,0 +1,248 @@
+package dev.artiz.financeassistantapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.artiz.financeassistantapi.config.RateLimiter;
+import dev.artiz.financeassistantapi.predictions.PredictionCosts;
+import dev.artiz.financeassistantapi.predictions.PredictionMetrics;
+import dev.artiz.financeassistantapi.predictions.PredictionService;
+import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
+import dev.artiz.financeassistantapi.predictions.StrategyStateStore;
+import dev.artiz.financeassistantapi.predictions.WalkForwardBacktester;
+import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.predictions.repository.ModelStateRepository;
+import dev.artiz.financeassistantapi.predictions.repository.PredictionRepository;
+import dev.artiz.financeassistantapi.predictions.strategies.OrdinaryLeastSquaresStrategy;
+import dev.artiz.financeassistantapi.transactions.CategoryDataVersions;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.repository.JpaTransactionStore;
+import dev.artiz.financeassistantapi.transactions.repository.MonthlySpendingRepository;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class PredictionServiceTest {
+
+    private static final String USER = "user-1";
+    private static final TransactionCategory CATEGORY =
+        TransactionCategory.FOOD;
+
+    private final MonthlySpendingRepository monthlySpendingRepository = mock(
+        MonthlySpendingRepository.class
+    );
+    private final PredictionRepository predictionRepository = mock(
+        PredictionRepository.class
+    );
+    private final CategoryDataVersions versions = mock(
+        CategoryDataVersions.class
+    );
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+
+    private PredictionService predictionService;
+
+    @BeforeEach
+    void setUp() {
+        predictionService = newService(new OrdinaryLeastSquaresStrategy());
+        when(monthlySpendingRepository.isRebuilt()).thenReturn(true);
+        when(
+            monthlySpendingRepository.findMonthlyTotals(
+                eq(USER),
+                anyCollection()
+            )
+        ).thenReturn(
+            List.of(
+                total(1, "100"),
+                total(2, "110"),
+                total(3, "120"),
+                total(4, "130")
+            )
+        );
+    }
+
+    @Test
+    void shouldServeRepeatedRequestsFromCacheUntilVersionChanges() {
+        when(versions.current(USER, CATEGORY)).thenReturn(1L, 1L, 2L);
+
+        predictionService.predictNextMonth(USER, CATEGORY).block();
+        predictionService.predictNextMonth(USER, CATEGORY).block();
+
+        verify(monthlySpendingRepository, times(1)).findMonthlyTotals(
+            eq(USER),
+            anyCollection()
+        );
+        verify(predictionRepository, times(1)).save(any());
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentRequestsForTheSameCategory()
+        throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        predictionService = newService(
+            new BlockingStrategy(release, new OrdinaryLeastSquaresStrategy())
+        );
+        when(versions.current(USER, CATEGORY)).thenReturn(1L);
+
+        Mono<List<PredictionDTO.Prediction>> callers = Flux
+            .range(0, 20)
+            .flatMap(i -> predictionService.predictNextMonth(USER, CATEGORY))
+            .collectList()
+            .cache();
+        callers.subscribe();
+
+        Thread.sleep(200);
+        release.countDown();
+        List<PredictionDTO.Prediction> results = callers.block(
+            Duration.ofSeconds(5)
+        );
+
+        assertThat(results).hasSize(20).allMatch(p -> p == results.getFirst());
+        verify(monthlySpendingRepository, times(1)).findMonthlyTotals(
+            eq(USER),
+            anyCollection()
+        );
+    }
+
+    @Test
+    void shouldChargeComputedPredictionsButNotCacheHits() {
+        when(versions.current(USER, CATEGORY)).thenReturn(1L);
+        when(rateLimiter.capacity()).thenReturn(10L);
+        when(rateLimiter.tryConsume(any(), anyLong())).thenReturn(
+            Mono.just(true)
+        );
+        RateLimiter.Caller caller = new RateLimiter.Caller(
+            "predictions:user:" + USER,
+            "/api/v1/predictions/next-month"
+        );
+
+        for (int i = 0; i < 2; i++) {
+            predictionService
+                .predictNextMonth(USER, CATEGORY)
+                .contextWrite(RateLimiter.bind(caller))
+                .block();
+        }
+
+        // 4 months of history fitted by one strategy, at 1 month per token
+        verify(rateLimiter, times(1)).tryConsume(caller.key(), 4L);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry
+            .counter(
+                "predictions.cache.lookups",
+                "category",
+                CATEGORY.name(),
+                "result",
+                result
+            )
+            .count();
+    }
+
+    private PredictionService newService(PredictionStrategy strategy) {
+        PredictionCosts predictionCosts = new PredictionCosts(rateLimiter);
+        ReflectionTestUtils.setField(predictionCosts, "workPerToken", 1L);
+        StrategyStateStore strategyStateStore = new StrategyStateStore(
+            mock(ModelStateRepository.class),
+            List.of(strategy)
+        );
+        PredictionService service = new PredictionService(
+            new JpaTransactionStore(
+                mock(TransactionRepository.class),
+                monthlySpendingRepository,
+                mock(TransactionOperations.class),
+                mock(JdbcTemplate.class),
+                strategyStateStore,
+                Schedulers.boundedElastic(),
+                mock(EntityManagerFactory.class)
+            ),
+            predictionRepository,
+            List.of(strategy),
+            Schedulers.parallel(),
+            Schedulers.boundedElastic(),
+            versions,
+            new ConcurrentMapCacheManager("predictions"),
+            strategyStateStore,
+            new WalkForwardBacktester(24, 100),
+            new PredictionMetrics(meterRegistry),
+            predictionCosts
+        );
+        ReflectionTestUtils.setField(
+            service,
+            "strategyTimeout",
+            Duration.ofSeconds(5)
+        );
+        ReflectionTestUtils.setField(
+            service,
+            "maxStaleness",
+            Duration.ZERO
+        );
+        return service;
+    }
+
+    private static MonthlyTotal total(int month, String amount) {
+        return new MonthlyTotal(
+            CATEGORY,
+            2025,
+            month,
+            new BigDecimal(amount),
+            5L
+        );
+    }
+
+    private record BlockingStrategy(
+        CountDownLatch release,
+        PredictionStrategy delegate
+    ) implements PredictionStrategy {
+        @Override
+        public PredictionDTO.Prediction predictNextMonth(
+            MonthlySeries series,
+            TransactionCategory category
+        ) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return delegate.predictNextMonth(series, category);
+        }
+
+        @Override
+        public double[] predict(
+            MonthlySeries series,
+            TransactionCategory category,
+            int horizon
+        ) {
+            return delegate.predict(series, category, horizon);
+        }
+
+        @Override
+        public String getModelName() {
+            return delegate.getModelName();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package dev.artiz.financeassistantapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+import dev.artiz.financeassistantapi.predictions.IncrementalPredictionStrategy;
+import dev.artiz.financeassistantapi.predictions.PredictionStrategy;
+import dev.artiz.financeassistantapi.predictions.StrategyStateStore;
+import dev.artiz.financeassistantapi.predictions.WalkForwardBacktester;
+import dev.artiz.financeassistantapi.predictions.dto.PredictionDTO;
+import dev.artiz.financeassistantapi.predictions.model.ModelState;
+import dev.artiz.financeassistantapi.predictions.model.MonthlySeries;
+import dev.artiz.financeassistantapi.predictions.repository.ModelStateRepository;
+import dev.artiz.financeassistantapi.predictions.strategies.HoltParameterOptimizer;
+import dev.artiz.financeassistantapi.predictions.strategies.HoltWintersStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.MovingAverageStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.NaiveWithDriftStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.OrdinaryLeastSquaresStrategy;
+import dev.artiz.financeassistantapi.predictions.strategies.WeightedMovingAverageStrategy;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PredictionStrategiesTest {
+
+    private static final TransactionCategory CATEGORY =
+        TransactionCategory.FOOD;
+
+    private final MonthlySeries linear = new MonthlySeries(
+        YearMonth.of(2024, 1),
+        new double[] { 100, 110, 120, 130, 140, 150 }
+    );
+
+    @Test
+    void shouldGapFillMissingMonthsWithZero() {
+        MonthlySeries series = MonthlySeries.from(
+            List.of(
+                total(2024, 11, "50"),
+                total(2025, 2, "80")
+            )
+        );
+
+        assertThat(series.start()).isEqualTo(YearMonth.of(2024, 11));
+        assertThat(series.end()).isEqualTo(YearMonth.of(2025, 2));
+        assertThat(series.values()).containsExactly(50, 0, 0, 80);
+        assertThat(series.indexOf(YearMonth.of(2025, 1))).isEqualTo(2);
+        assertThat(series.indexOf(YearMonth.of(2025, 3))).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldExtendLinearTrend() {
+        PredictionDTO.Prediction ols = new OrdinaryLeastSquaresStrategy()
+            .predictNextMonth(linear, CATEGORY);
+        PredictionDTO.Prediction drift = new NaiveWithDriftStrategy()
+            .predictNextMonth(linear, CATEGORY);
+
+        assertThat(ols.predictedAmount().doubleValue()).isCloseTo(
+            160,
+            within(1e-9)
+        );
+        assertThat(ols.modelFit()).isCloseTo(1.0, within(1e-9));
+        assertThat(drift.predictedAmount().doubleValue()).isCloseTo(
+            160,
+            within(1e-9)
+        );
+    }
+
+    @Test
+    void shouldAverageTrailingWindow() {
+        PredictionDTO.Prediction sma = new MovingAverageStrategy()
+            .predictNextMonth(linear, CATEGORY);
+        PredictionDTO.Prediction wma = new WeightedMovingAverageStrategy()
+            .predictNextMonth(linear, CATEGORY);
+
+        assertThat(sma.predictedAmount().doubleValue()).isCloseTo(
+            140,
+            within(1e-9)
+        );
+        // (100*1 + 110*2 + 120*3 + 130*4 + 140*5 + 150*6) / 21
+        assertThat(wma.predictedAmount().doubleValue()).isCloseTo(
+            2800.0 / 21,
+            within(1e-9)
+        );
+    }
+
+    @Test
+    void shouldFitHoltParametersOncePerSeries() {
+        HoltParameterOptimizer optimizer = new HoltParameterOptimizer(10);
+        MonthlySeries noisy = new MonthlySeries(
+            YearMonth.of(2023, 1),
+            new double[] { 120, 80, 130, 95, 140, 100, 150, 105, 160, 115 }
+        );
+
+        HoltParameterOptimizer.HoltParameters fitted = optimizer.fit(
+            CATEGORY,
+            noisy
+        );
+
+        assertThat(optimizer.fit(CATEGORY, noisy)).isSameAs(fitted);
+        // The uncached, sequential search used by backtests agrees
+        assertThat(optimizer.fitOnce(noisy)).isEqualTo(fitted);
+        assertThat(fitted.alpha()).isBetween(0.01, 0.99);
+        assertThat(fitted.beta()).isBetween(0.01, 0.99);
+        assertThat(
+            sse(noisy, fitted.alpha(), fitted.beta())
+        ).isLessThanOrEqualTo(sse(noisy, 0.3, 0.2));
+    }
+
+    @Test
+    void shouldForecastEveryHorizonFromOneFit() {
+        HoltWintersStrategy holt = new HoltWintersStrategy(
+            new HoltParameterOptimizer(10)
+        );
+        ReflectionTestUtils.setField(holt, "alpha", 0.3);
+        ReflectionTestUtils.setField(holt, "beta", 0.2);
+
+        assertThat(
+            new OrdinaryLeastSquaresStrategy().predict(linear, CATEGORY, 3)
+        ).containsExactly(new double[] { 160, 170, 180 }, within(1e-9));
+        assertThat(
+            new NaiveWithDriftStrategy().predict(linear, CATEGORY, 3)
+        ).containsExactly(new double[] { 160, 170, 180 }, within(1e-9));
+        assertThat(
+            new MovingAverageStrategy().predict(linear, CATEGORY, 2)
+        ).containsExactly(new double[] { 140, 140 }, within(1e-9));
+
+        // The first step of every path is the next-month prediction
+        for (PredictionStrategy strategy : List.of(
+            holt,
+            new WeightedMovingAverageStrategy(),
+            new OrdinaryLeastSquaresStrategy()
+        )) {
+            assertThat(strategy.predict(linear, CATEGORY, 12))
+                .hasSize(12)
+                .startsWith(
+                    strategy
+                        .predictNextMonth(linear, CATEGORY)
+                        .predictedAmount()
+                        .doubleValue()
+                );
+        }
+    }
+
+    @Test
+    void shouldScoreModelsOnOutOfSampleError() {
+        WalkForwardBacktester backtester = new WalkForwardBacktester(24, 10);
+        OrdinaryLeastSquaresStrategy ols = new OrdinaryLeastSquaresStrategy();
+
+        double olsScore = backtester
+            .score(ols, linear, CATEGORY)
+            .orElseThrow();
+        double smaScore = backtester
+            .score(new MovingAverageStrategy(), linear, CATEGORY)
+            .orElseThrow();
+
+        assertThat(olsScore).isCloseTo(1.0, within(1e-9));
+        assertThat(smaScore).isLessThan(olsScore);
+        // Nothing can be held out of a three month history
+        assertThat(
+            backtester.score(
+                ols,
+                new MonthlySeries(linear.start(), new double[] { 1, 2, 3 }),
+                CATEGORY
+            )
+        ).isEmpty();
+    }
+
+    @Test
+    void shouldMatchFullRefitAfterIncrementalUpdates() {
+        HoltWintersStrategy holt = new HoltWintersStrategy(
+            new HoltParameterOptimizer(10)
+        );
+        ReflectionTestUtils.setField(holt, "alpha", 0.3);
+        ReflectionTestUtils.setField(holt, "beta", 0.2);
+
+        MonthlySeries before = new MonthlySeries(
+            YearMonth.of(2024, 1),
+            new double[] { 100, 110, 95, 130 }
+        );
+        MonthlySeries after = new MonthlySeries(
+            YearMonth.of(2024, 1),
+            new double[] { 100, 110, 95, 150, 0, 40 }
+        );
+
+        for (IncrementalPredictionStrategy strategy : List.of(
+            new OrdinaryLeastSquaresStrategy(),
+            holt
+        )) {
+            double[] state = strategy.fit(before, CATEGORY);
+
+            assertThat(strategy.apply(state, 3, 20)).isTrue();
+            assertThat(strategy.apply(state, 5, 40)).isTrue();
+            // Months before the latest one cannot be updated in place
+            assertThat(strategy.apply(state.clone(), 1, 5)).isFalse();
+
+            PredictionDTO.Prediction incremental = strategy.forecast(
+                state,
+                CATEGORY
+            );
+            PredictionDTO.Prediction refit = strategy.predictNextMonth(
+                after,
+                CATEGORY
+            );
+
+            assertThat(
+                incremental.predictedAmount().doubleValue()
+            ).isCloseTo(refit.predictedAmount().doubleValue(), within(0.01));
+            assertThat(incremental.modelFit()).isCloseTo(
+                refit.modelFit(),
+                within(1e-9)
+            );
+        }
+    }
+
+    @Test
+    void shouldRefitStoredStateAfterEnoughAdvancedMonths() {
+        OrdinaryLeastSquaresStrategy ols = new OrdinaryLeastSquaresStrategy();
+        StrategyStateStore store = new StrategyStateStore(
+            mock(ModelStateRepository.class),
+            List.of(ols)
+        );
+        ReflectionTestUtils.setField(store, "refitAfterMonths", 3);
+        ModelState stored = ModelState.builder()
+            .modelName(ols.getModelName())
+            .startMonth(linear.start().atDay(1))
+            .months(linear.size())
+            .total(new BigDecimal("750"))
+            .state(ols.fit(linear, CATEGORY))
+            .build();
+
+        stored.setFittedMonths(linear.size() - 2);
+        assertThat(store.resolve(ols, linear, CATEGORY, stored).refitted())
+            .isFalse();
+
+        stored.setFittedMonths(linear.size() - 3);
+        assertThat(store.resolve(ols, linear, CATEGORY, stored).refitted())
+            .isTrue();
+    }
+
+    // One-step-ahead SSE of Holt's recursion, as reported by the strategy
+    private static double sse(MonthlySeries series, double alpha, double beta) {
+        double[] values = series.values();
+        double level = values[0];
+        double trend = values[1] - values[0];
+        double sse = 0;
+        for (int i = 1; i < values.length; i++) {
+            double error = values[i] - (level + trend);
+            double lastLevel = level;
+            level = alpha * values[i] + (1 - alpha) * (level + trend);
+            trend = beta * (level - lastLevel) + (1 - beta) * trend;
+            sse += error * error;
+        }
+        return sse;
+    }
+
+    private static MonthlyTotal total(int year, int month, String amount) {
+        return new MonthlyTotal(
+            CATEGORY,
+            year,
+            month,
+            new BigDecimal(amount),
+            1L
+        );
+    }
+}
@@ -0,0 +1,241 @@
+package dev.artiz.financeassistantapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+import dev.artiz.financeassistantapi.predictions.StrategyStateStore;
+import dev.artiz.financeassistantapi.predictions.repository.ModelStateRepository;
+import dev.artiz.financeassistantapi.transactions.model.MonthlyTotal;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import dev.artiz.financeassistantapi.transactions.repository.R2dbcTransactionStore;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionStore;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+
+// The rollup upsert is PostgreSQL's ON CONFLICT DO UPDATE, which H2 lacks
+class R2dbcTransactionStoreTest {
+
+    private static final String USER = "user-1";
+
+    private static final PostgreSQLContainer<?> postgres =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    private R2dbcTransactionStore store;
+
+    @BeforeAll
+    static void startPostgres() {
+        assumeTrue(
+            DockerClientFactory.instance().isDockerAvailable(),
+            "Docker is not available"
+        );
+        postgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() {
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+            ConnectionFactoryOptions.parse(
+                "r2dbc:postgresql://" +
+                postgres.getHost() +
+                ":" +
+                postgres.getFirstMappedPort() +
+                "/" +
+                postgres.getDatabaseName()
+            )
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, postgres.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, postgres.getPassword())
+                .build()
+        );
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+        Flux
+            .just(
+                "DROP TABLE IF EXISTS transactions, monthly_spending, model_states, rollup_state",
+                """
+                CREATE TABLE transactions (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    description VARCHAR(255), amount NUMERIC(38, 2),
+                    category VARCHAR(255), created_at TIMESTAMP, user_id VARCHAR(255)
+                )
+                """,
+                """
+                CREATE TABLE monthly_spending (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    category VARCHAR(255) NOT NULL, user_id VARCHAR(255),
+                    period DATE NOT NULL, total NUMERIC(38, 2) NOT NULL,
+                    transaction_count BIGINT NOT NULL,
+                    UNIQUE (category, user_id, period)
+                )
+                """,
+                """
+                CREATE TABLE model_states (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    user_id VARCHAR(255) NOT NULL, category VARCHAR(255) NOT NULL,
+                    model_name VARCHAR(255) NOT NULL, start_month DATE NOT NULL,
+                    months INTEGER NOT NULL, total NUMERIC(38, 2) NOT NULL,
+                    state DOUBLE PRECISION ARRAY NOT NULL, updated_at TIMESTAMP
+                )
+                """,
+                """
+                CREATE TABLE rollup_state (
+                    name VARCHAR(255) PRIMARY KEY, rebuilt_at TIMESTAMP NOT NULL
+                )
+                """,
+                // Read the rollup rather than the ledger
+                """
+                INSERT INTO rollup_state VALUES ('monthly_spending', CURRENT_TIMESTAMP)
+                """
+            )
+            .concatMap(ddl -> databaseClient.sql(ddl).then())
+            .blockLast();
+
+        store = new R2dbcTransactionStore(
+            databaseClient,
+            TransactionalOperator.create(
+                new R2dbcTransactionManager(connectionFactory)
+            ),
+            new StrategyStateStore(mock(ModelStateRepository.class), List.of())
+        );
+    }
+
+    @Test
+    void shouldKeepRollupInStepWithLedger() {
+        Transaction groceries = store
+            .save(transaction(TransactionCategory.FOOD, "40.00"))
+            .block();
+        store.save(transaction(TransactionCategory.FOOD, "2.50")).block();
+        store.save(transaction(TransactionCategory.TRANSPORT, "9.99")).block();
+
+        assertThat(groceries.getId()).isNotNull();
+        assertThat(groceries.getCreatedAt()).isNotNull();
+        assertThat(store.delete(groceries.getId()).block())
+            .extracting(Transaction::getId)
+            .isEqualTo(groceries.getId());
+        assertThat(store.delete(groceries.getId()).blockOptional()).isEmpty();
+
+        List<MonthlyTotal> totals = store
+            .findMonthlyTotals(USER, List.of(TransactionCategory.FOOD))
+            .block();
+        assertThat(totals).hasSize(1);
+        assertThat(totals.getFirst().total()).isEqualByComparingTo("2.50");
+        assertThat(totals.getFirst().transactionCount()).isEqualTo(1L);
+        assertThat(
+            store
+                .find(new TransactionQuery(USER, null, null, null, null, null, null))
+                .collectList()
+                .block()
+        ).hasSize(2);
+    }
+
+    @Test
+    void shouldImportBatchWithOneRollupUpdatePerMonth() {
+        List<Transaction> batch = new ArrayList<>();
+        for (int day = 1; day <= 40; day++) {
+            Transaction t = transaction(TransactionCategory.FOOD, "1.25");
+            t.setCreatedAt(LocalDate.of(2025, 1, 1).plusDays(day).atStartOfDay());
+            batch.add(t);
+        }
+
+        assertThat(store.saveAll(batch).block()).isEqualTo(40);
+
+        List<MonthlyTotal> totals = store
+            .findMonthlyTotals(USER, List.of(TransactionCategory.FOOD))
+            .block();
+        assertThat(totals)
+            .extracting(MonthlyTotal::month, MonthlyTotal::transactionCount)
+            .containsExactly(tuple(1, 30L), tuple(2, 10L));
+        assertThat(totals.getFirst().total()).isEqualByComparingTo("37.50");
+    }
+
+    @Test
+    void shouldSplitBatchesPastTheBindParameterLimit() {
+        int rows = TransactionStore.MAX_BIND_PARAMETERS / 5 + 10;
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Transaction t = transaction(TransactionCategory.FOOD, "1.00");
+            t.setCreatedAt(LocalDate.of(2025, 3, 1).atStartOfDay());
+            batch.add(t);
+        }
+
+        assertThat(store.saveAll(batch).block()).isEqualTo(rows);
+        assertThat(
+            store
+                .findMonthlyTotals(USER, List.of(TransactionCategory.FOOD))
+                .block()
+        )
+            .extracting(MonthlyTotal::transactionCount)
+            .containsExactly((long) rows);
+    }
+
+    @Test
+    void shouldPageThroughLedgerByKeyset() {
+        Flux
+            .range(0, 5)
+            .concatMap(i ->
+                store.save(transaction(TransactionCategory.FOOD, i + ".00"))
+            )
+            .blockLast();
+        store.save(transaction(TransactionCategory.TRANSPORT, "1.00")).block();
+
+        List<Transaction> seen = new ArrayList<>();
+        TransactionQuery page = new TransactionQuery(
+            USER,
+            TransactionCategory.FOOD,
+            null,
+            null,
+            null,
+            null,
+            2
+        );
+        List<Transaction> rows;
+        do {
+            rows = store.find(page).collectList().block();
+            seen.addAll(rows);
+            if (!rows.isEmpty()) {
+                page = page.after(rows.getLast(), 2);
+            }
+        } while (rows.size() == 2);
+
+        assertThat(seen)
+            .extracting(t -> t.getAmount().intValue())
+            .containsExactly(4, 3, 2, 1, 0);
+    }
+
+    private static Transaction transaction(
+        TransactionCategory category,
+        String amount
+    ) {
+        return Transaction.builder()
+            .description("test")
+            .amount(new BigDecimal(amount))
+            .category(category)
+            .userId(USER)
+            .build();
+    }
+}
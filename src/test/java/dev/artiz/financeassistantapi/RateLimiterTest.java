@@ -1,6 +1,7 @@
 package dev.artiz.financeassistantapi;
 
 import dev.artiz.financeassistantapi.config.AppConfig;
+import dev.artiz.financeassistantapi.config.RateLimiter;
 import dev.artiz.financeassistantapi.config.RateLimitingFilter;
 import dev.artiz.financeassistantapi.config.SecurityConfig;
 import dev.artiz.financeassistantapi.predictions.PredictionController;
@@ -19,7 +20,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(PredictionController.class)
-@Import({ SecurityConfig.class, RateLimitingFilter.class })
+@Import({ SecurityConfig.class, RateLimitingFilter.class, RateLimiter.class })
 class RateLimiterTest {
 
     @Autowired
@@ -38,7 +39,7 @@ class RateLimiterTest {
     void shouldBlockAfterFiveRequestsEvenWithValidJwt() {
         String url = "/api/v1/predictions/next-month";
         String payload = "{\"category\":\"FOOD\"}";
-        when(predictionService.predictNextMonth(any())).thenReturn(
+        when(predictionService.predictNextMonth(any(), any())).thenReturn(
             Mono.empty()
         );
 
@@ -69,4 +70,41 @@ class RateLimiterTest {
                     "Too many requests. Please slow down. Prediction is expensive!"
             );
     }
+
+    @Test
+    void shouldKeepSeparateBucketsPerJwtSubject() {
+        String url = "/api/v1/predictions/next-month";
+        String payload = "{\"category\":\"FOOD\"}";
+        when(predictionService.predictNextMonth(any(), any())).thenReturn(
+            Mono.empty()
+        );
+
+        for (int i = 0; i < 5; i++) {
+            webTestClient
+                .mutateWith(
+                    SecurityMockServerConfigurers.mockJwt()
+                        .jwt(jwt -> jwt.subject("alice"))
+                )
+                .post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .exchange()
+                .expectStatus()
+                .isOk();
+        }
+
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt()
+                    .jwt(jwt -> jwt.subject("bob"))
+            )
+            .post()
+            .uri(url)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(payload)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
 }
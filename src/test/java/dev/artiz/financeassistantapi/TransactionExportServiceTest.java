@@ -0,0 +1,123 @@
+package dev.artiz.financeassistantapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.artiz.financeassistantapi.exception.RateLimitExceededException;
+import dev.artiz.financeassistantapi.transactions.TransactionExportService;
+import dev.artiz.financeassistantapi.transactions.dto.LedgerFormat;
+import dev.artiz.financeassistantapi.transactions.dto.TransactionDTO;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionStore;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class TransactionExportServiceTest {
+
+    private static final String USER = "user-1";
+
+    private final TransactionStore transactionStore = mock(
+        TransactionStore.class
+    );
+    private final TransactionExportService exportService =
+        new TransactionExportService(
+            transactionStore,
+            new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        );
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "maxConcurrent", 1);
+    }
+
+    @Test
+    void shouldEncodeRowsAsCsvAndNdjson() {
+        when(transactionStore.scroll(any())).thenAnswer(invocation ->
+            Flux.just(
+                new Transaction(
+                    2L,
+                    "Dinner, \"La Piazza\"",
+                    new BigDecimal("42.10"),
+                    TransactionCategory.FOOD,
+                    LocalDateTime.of(2026, 2, 11, 19, 30),
+                    USER
+                ),
+                new Transaction(
+                    1L,
+                    "Bus",
+                    new BigDecimal("2.50"),
+                    TransactionCategory.TRANSPORT,
+                    LocalDateTime.of(2026, 2, 10, 8, 0),
+                    USER
+                )
+            )
+        );
+
+        assertThat(export(LedgerFormat.CSV)).isEqualTo(
+            "id,description,amount,category,createdAt\r\n" +
+            "2,\"Dinner, \"\"La Piazza\"\"\",42.10,FOOD,2026-02-11T19:30\r\n" +
+            "1,Bus,2.50,TRANSPORT,2026-02-10T08:00\r\n"
+        );
+        assertThat(export(LedgerFormat.NDJSON)).isEqualTo(
+            "{\"id\":2,\"description\":\"Dinner, \\\"La Piazza\\\"\",\"amount\":42.10,\"category\":\"FOOD\",\"createdAt\":\"2026-02-11T19:30:00\"}\n" +
+            "{\"id\":1,\"description\":\"Bus\",\"amount\":2.50,\"category\":\"TRANSPORT\",\"createdAt\":\"2026-02-10T08:00:00\"}\n"
+        );
+    }
+
+    @Test
+    void shouldRefuseExportsBeyondTheLimitUntilOneFinishes() {
+        Sinks.Many<Transaction> rows = Sinks.many()
+            .unicast()
+            .onBackpressureBuffer();
+        when(transactionStore.scroll(any())).thenReturn(rows.asFlux());
+
+        Disposable first = exportService
+            .export(
+                USER,
+                new TransactionDTO.ExportFilter(null, null, null),
+                LedgerFormat.NDJSON,
+                DefaultDataBufferFactory.sharedInstance
+            )
+            .subscribe();
+
+        assertThatThrownBy(() -> export(LedgerFormat.NDJSON)).isInstanceOf(
+            RateLimitExceededException.class
+        );
+
+        first.dispose();
+        when(transactionStore.scroll(any())).thenReturn(Flux.empty());
+        assertThat(export(LedgerFormat.CSV)).isEqualTo(
+            "id,description,amount,category,createdAt\r\n"
+        );
+    }
+
+    private String export(LedgerFormat format) {
+        return DataBufferUtils.join(
+            exportService.export(
+                USER,
+                new TransactionDTO.ExportFilter(null, null, null),
+                format,
+                DefaultDataBufferFactory.sharedInstance
+            )
+        )
+            .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+            .block();
+    }
+}
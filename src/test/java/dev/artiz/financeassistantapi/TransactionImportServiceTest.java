@@ -0,0 +1,82 @@
+package dev.artiz.financeassistantapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.artiz.financeassistantapi.transactions.CategoryDataVersions;
+import dev.artiz.financeassistantapi.transactions.TransactionImportService;
+import dev.artiz.financeassistantapi.transactions.dto.ImportDTO;
+import dev.artiz.financeassistantapi.transactions.dto.LedgerFormat;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionStore;
+import jakarta.validation.Validation;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class TransactionImportServiceTest {
+
+    private static final String USER = "user-1";
+
+    private final TransactionStore transactionStore = mock(
+        TransactionStore.class
+    );
+    private final CategoryDataVersions versions = mock(
+        CategoryDataVersions.class
+    );
+
+    private TransactionImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new TransactionImportService(
+            transactionStore,
+            versions,
+            new ObjectMapper().findAndRegisterModules(),
+            Validation.buildDefaultValidatorFactory().getValidator()
+        );
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        when(transactionStore.saveAll(anyList())).thenAnswer(invocation ->
+            Mono.just(invocation.<List<Transaction>>getArgument(0).size())
+        );
+    }
+
+    @Test
+    void shouldImportValidCsvLinesAndReportTheRest() {
+        List<ImportDTO> events = importService
+            .importTransactions(
+                USER,
+                Flux.just(
+                    "category,description,amount,createdAt",
+                    "FOOD,\"Groceries, weekly\",42.10,2025-01-03",
+                    "FOOD,Bakery,-3,2025-01-04",
+                    "",
+                    "RENTAL,Flat,900,2025-01-01",
+                    "TRANSPORT,Bus,2.80,2025-01-05T08:15:00"
+                ),
+                LedgerFormat.CSV
+            )
+            .collectList()
+            .block();
+
+        assertThat(events).containsExactly(
+            new ImportDTO.LineError(3, "Amount must be positive or zero"),
+            new ImportDTO.Progress(1, 1, false),
+            new ImportDTO.LineError(5, "Unknown category: RENTAL"),
+            new ImportDTO.Progress(2, 2, false),
+            new ImportDTO.Progress(2, 2, true)
+        );
+        verify(transactionStore, times(2)).saveAll(anyList());
+        verify(versions).bump(USER, TransactionCategory.FOOD);
+        verify(versions).bump(USER, TransactionCategory.TRANSPORT);
+    }
+}
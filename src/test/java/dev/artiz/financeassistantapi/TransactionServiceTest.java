@@ -0,0 +1,124 @@
+package dev.artiz.financeassistantapi;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.artiz.financeassistantapi.transactions.CategoryDataVersions;
+import dev.artiz.financeassistantapi.transactions.TransactionCache;
+import dev.artiz.financeassistantapi.transactions.TransactionService;
+import dev.artiz.financeassistantapi.transactions.dto.TransactionDTO;
+import dev.artiz.financeassistantapi.transactions.model.Transaction;
+import dev.artiz.financeassistantapi.transactions.model.TransactionCategory;
+import dev.artiz.financeassistantapi.transactions.model.TransactionQuery;
+import dev.artiz.financeassistantapi.transactions.repository.TransactionStore;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Flux;
+
+class TransactionServiceTest {
+
+    private static final String USER = "user-1";
+
+    private final TransactionStore transactionStore = mock(
+        TransactionStore.class
+    );
+    private final CategoryDataVersions versions = mock(
+        CategoryDataVersions.class
+    );
+
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionService(
+            transactionStore,
+            versions,
+            new TransactionCache(
+                new ConcurrentMapCacheManager("transactions"),
+                versions
+            )
+        );
+        when(transactionStore.find(any())).thenAnswer(invocation ->
+            Flux.just(
+                new Transaction(
+                    1L,
+                    "test",
+                    BigDecimal.TEN,
+                    TransactionCategory.FOOD,
+                    LocalDateTime.now(),
+                    USER
+                )
+            )
+        );
+    }
+
+    @Test
+    void shouldOnlyReloadPagesOfTheCategoryThatChanged() {
+        when(versions.current(USER, TransactionCategory.FOOD)).thenReturn(
+            1L,
+            1L,
+            2L
+        );
+        when(versions.current(USER, TransactionCategory.TRANSPORT)).thenReturn(
+            7L
+        );
+
+        page(TransactionCategory.FOOD);
+        page(TransactionCategory.TRANSPORT);
+        page(TransactionCategory.FOOD);
+        page(TransactionCategory.TRANSPORT);
+        // A FOOD write bumps only the FOOD version
+        page(TransactionCategory.FOOD);
+        page(TransactionCategory.TRANSPORT);
+
+        verify(transactionStore, times(2)).find(
+            ArgumentMatchers.<TransactionQuery>argThat(q ->
+                q.category() == TransactionCategory.FOOD
+            )
+        );
+        verify(transactionStore, times(1)).find(
+            ArgumentMatchers.<TransactionQuery>argThat(q ->
+                q.category() == TransactionCategory.TRANSPORT
+            )
+        );
+    }
+
+    @Test
+    void shouldNotCacheUnboundedListings() {
+        TransactionDTO.Filter all = new TransactionDTO.Filter(
+            null,
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+
+        transactionService.getTransactions(USER, all).blockLast();
+        transactionService.getTransactions(USER, all).blockLast();
+
+        verify(transactionStore, times(2)).find(any());
+        verify(versions, never()).current(
+            eq(USER),
+            any(TransactionCategory.class)
+        );
+    }
+
+    private void page(TransactionCategory category) {
+        transactionService
+            .getTransactions(
+                USER,
+                new TransactionDTO.Filter(category, null, null, null, null, 50)
+            )
+            .blockLast();
+    }
+}